@@ -0,0 +1,58 @@
+package frc.lib.io.motor;
+
+import static edu.wpi.first.units.Units.RadiansPerSecond;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+import frc.lib.io.motor.setpoints.SetpointType;
+import frc.lib.io.motor.setpoints.VelocitySetpoint;
+
+/**
+ * Applies a velocity setpoint that changes every call to a {@link NoOpMotorIO}, which sends every
+ * setpoint, so each call runs the whole path from a setpoint to the hardware methods.
+ * <p>
+ * {@link #adapter()} builds a new {@link VelocitySetpoint} each call, the way setpoints were applied
+ * before {@link MotorSetpoint}, and {@link #motorSetpoint()} updates and applies one reused
+ * MotorSetpoint. Run with the gc profiler (the default for ./gradlew jmh), gc.alloc.rate.norm is
+ * the bytes allocated per setpoint by each
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApplySetpointBenchmark {
+    private NoOpMotorIO io;
+    private MotorSetpoint setpoint;
+    private double velocity;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        io = new NoOpMotorIO();
+        setpoint = new MotorSetpoint();
+        velocity = 0;
+    }
+
+    private double nextVelocity() {
+        velocity = velocity > 100 ? 0 : velocity + 0.5;
+        return velocity;
+    }
+
+    @Benchmark
+    public void adapter() {
+        io.applySetpoint(new VelocitySetpoint(RadiansPerSecond.of(nextVelocity())));
+    }
+
+    @Benchmark
+    public void motorSetpoint() {
+        io.applySetpoint(setpoint.set(SetpointType.VELOCITY, nextVelocity()));
+    }
+}
@@ -0,0 +1,48 @@
+package frc.lib.util.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Logs a {@link SuperstructureTree} and ends the loop once per benchmark call, with writes either
+ * handed to DogLog as they're made or captured and published by {@link Logger}'s publisher thread.
+ * <p>
+ * The time per call is the time logging takes out of the robot loop in each mode. Setup runs on
+ * the benchmark thread, so it's the thread writes are captured from
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsyncPublishingBenchmark {
+    @Param({"false", "true"})
+    public boolean async;
+
+    private SuperstructureTree tree;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tree = new SuperstructureTree();
+        Logger.setAsyncPublishing(async);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Logger.setAsyncPublishing(false);
+    }
+
+    @Benchmark
+    public void loop() {
+        tree.log();
+        Logger.periodic();
+    }
+}
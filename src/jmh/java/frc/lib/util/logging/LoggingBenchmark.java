@@ -0,0 +1,81 @@
+package frc.lib.util.logging;
+
+import static edu.wpi.first.units.Units.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dev.doglog.DogLog;
+import frc.lib.component.MotorComponent;
+import frc.lib.io.motor.MotorOutputs;
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+
+/**
+ * Logs a {@link SuperstructureTree} once per benchmark call, which stands in for one loop of logging.
+ * <p>
+ * {@link #stringKeys()} builds every key by concatenating strings as it's logged, the way
+ * logging was done before {@link LogPath} and {@link LogKey}, and {@link #handles()} logs the
+ * same tree through the interned handles. Run with the gc profiler (the default for
+ * ./gradlew jmh), gc.alloc.rate.norm is the bytes allocated per loop by each
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggingBenchmark {
+    private SuperstructureTree tree;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tree = new SuperstructureTree();
+    }
+
+    @Benchmark
+    public void stringKeys() {
+        for (SuperstructureTree.MotorSubsystem subsystem : tree.subsystems) {
+            String subsystemPath = SuperstructureTree.path + "/" + subsystem.name;
+            for (int i = 0; i < subsystem.motors.length; i++) {
+                logStringKeyed(subsystemPath + "/" + subsystem.motorNames[i], subsystem.motors[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void handles() {
+        tree.log();
+    }
+
+    // Logs a motor the way it was before handles, with every key built as it's logged
+    private static void logStringKeyed(String path, MotorComponent<?> motor) {
+        MotorSetpoint setpoint = motor.getMotorSetpoint();
+        DogLog.log(path + "/Setpoint Value", setpoint.getValue());
+        DogLog.log(path + "/Setpoint Type", setpoint.getType().name());
+        MotorOutputs[] outputs = motor.getMotorOutputs();
+        logOutputs(path + "/Main", outputs[0]);
+        for (int i = 1; i < outputs.length; i++) {
+            logOutputs(path + "/Followers/" + (i - 1), outputs[i]);
+        }
+    }
+
+    private static void logOutputs(String path, MotorOutputs outputs) {
+        logMeasure(path + "/Position", outputs.position().in(Rotations), Rotations.name());
+        logMeasure(path + "/Velocity", outputs.velocity().in(RotationsPerSecond), RotationsPerSecond.name());
+        logMeasure(path + "/Supply Voltage", outputs.supplyVolts(), Volts.name());
+        logMeasure(path + "/Stator Voltage", outputs.statorVolts(), Volts.name());
+        logMeasure(path + "/Stator Current", outputs.statorAmps(), Amps.name());
+        logMeasure(path + "/Supply Current", outputs.supplyAmps(), Amps.name());
+        logMeasure(path + "/Temperature", outputs.temperatureCelsius(), Celsius.name());
+    }
+
+    private static void logMeasure(String key, double value, String unit) {
+        DogLog.log(key + "/Value", value);
+        DogLog.log(key + "/Units", unit);
+    }
+}
@@ -0,0 +1,70 @@
+package frc.lib.util.logging;
+
+import dev.doglog.DogLogOptions;
+import edu.wpi.first.hal.HAL;
+import frc.lib.component.ComponentSubsystem;
+import frc.lib.component.MotorComponent;
+import frc.lib.io.motor.NoOpMotorIO;
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+import frc.lib.io.motor.setpoints.SetpointType;
+
+/**
+ * A tree of subsystems shaped like the Superstructure's intake, indexer, shooter and climber,
+ * made of no-op motors so it can be logged without any hardware
+ */
+final class SuperstructureTree {
+    static final String path = "Robot/Superstructure";
+
+    static final class MotorSubsystem extends ComponentSubsystem {
+        final String name;
+        final MotorComponent<?>[] motors;
+        final String[] motorNames;
+
+        MotorSubsystem(String name, String... motorNames) {
+            this.name = name;
+            this.motorNames = motorNames;
+            motors = new MotorComponent<?>[motorNames.length];
+            for (int i = 0; i < motorNames.length; i++) {
+                motors[i] = registerComponent(motorNames[i], new MotorComponent<>(new NoOpMotorIO()));
+            }
+        }
+    }
+
+    final MotorSubsystem[] subsystems;
+    final LogPath[] subsystemPaths;
+
+    /**
+     * Starts the HAL and logging without publishing to NetworkTables, then builds the tree
+     */
+    SuperstructureTree() {
+        HAL.initialize(500, 0);
+        Logger.setOptions(new DogLogOptions()
+            .withNtPublish(false)
+            .withCaptureNt(false)
+            .withCaptureDs(false)
+            .withLogExtras(false)
+            .withCaptureConsole(false));
+        Logger.setEnabled(true);
+        subsystems = new MotorSubsystem[] {
+            new MotorSubsystem("Intake", "Pivot", "Rollers"),
+            new MotorSubsystem("Indexer", "Belt", "Feeder"),
+            new MotorSubsystem("Shooter", "Top Flywheel", "Bottom Flywheel"),
+            new MotorSubsystem("Climber", "Climber")
+        };
+        LogPath superstructure = LogPath.of(path);
+        subsystemPaths = new LogPath[subsystems.length];
+        for (int i = 0; i < subsystems.length; i++) {
+            subsystemPaths[i] = superstructure.child(subsystems[i].name);
+            subsystems[i].motors[0].applySetpoint(new MotorSetpoint(SetpointType.VOLTAGE, 1.0));
+        }
+    }
+
+    /**
+     * Logs every subsystem through its path handle
+     */
+    void log() {
+        for (int i = 0; i < subsystems.length; i++) {
+            Logger.log(subsystemPaths[i], subsystems[i]);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package frc.lib.component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.lib.util.logging.LogKey;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 
@@ -21,30 +23,86 @@ import frc.lib.util.logging.Logger;
  * during the periodic cycle. The subsystem also automates logging of all
  * registered components.
  * 
+ * <p>
+ * Components are updated and logged in the order they were registered. The
+ * registrations are frozen into arrays the first time the subsystem is updated
+ * or logged, so neither allocates, and each component's periodic and log can
+ * be timed with {@link #setComponentTiming(boolean)}.
+ * 
  * @see Component
  * @see Loggable
  */
 public class ComponentSubsystem extends SubsystemBase implements Loggable {
-    /** Map to store components contained within the subsystem */
-    private Map<String, Component> namedComponents = new HashMap<>();
+    /** Names and components registered while the subsystem is constructed */
+    private List<String> registeredNames = new ArrayList<>();
+    private List<Component> registeredComponents = new ArrayList<>();
+    /** Components contained within the subsystem, in registration order, once frozen */
+    private String[] names;
+    private Component[] components;
+    /** The path this subsystem was last logged to, and each component's paths under it */
+    private LogPath logPath;
+    private LogPath[] componentPaths;
+    private LogKey[] periodicTimeKeys;
+    private LogKey[] logTimeKeys;
+    /** Whether each component's periodic and log are timed */
+    private boolean timed = false;
+    private double[] periodicMs;
+    private double[] logMs;
 
     /**
      * Registers a component with this subsystem.
      * 
      * <p>
      * The component is stored by name and will be automatically updated during
-     * periodic cycles and included in logging operations.
+     * periodic cycles and included in logging operations. Registering a name
+     * again replaces the component, keeping its place in the order.
      * 
      * @param <C>       The component type
      * @param name      The unique name for this component
      * @param component The component instance to register
      * @return The same component instance for convenient chaining
+     * @throws IllegalStateException If the subsystem has already been updated or logged
      */
     protected <C extends Component> C registerComponent(String name, C component) {
-        namedComponents.put(name, component);
+        if (components != null) {
+            throw new IllegalStateException(
+                "Components must be registered before " + getName() + " is updated or logged");
+        }
+        int index = registeredNames.indexOf(name);
+        if (index >= 0) {
+            registeredComponents.set(index, component);
+        } else {
+            registeredNames.add(name);
+            registeredComponents.add(component);
+        }
         return component;
     }
 
+    /**
+     * Freezes the registered components into arrays, if they haven't been already
+     */
+    private void freeze() {
+        if (components != null) {
+            return;
+        }
+        names = registeredNames.toArray(new String[0]);
+        components = registeredComponents.toArray(new Component[0]);
+        periodicMs = new double[components.length];
+        logMs = new double[components.length];
+        registeredNames = null;
+        registeredComponents = null;
+    }
+
+    /**
+     * Enables or disables timing each component's periodic and log, which are
+     * published under "Component Timing" in this subsystem's log
+     * 
+     * @param timed Whether to time the components
+     */
+    public void setComponentTiming(boolean timed) {
+        this.timed = timed;
+    }
+
     /**
      * Performs periodic updates for all registered components.
      * 
@@ -56,8 +114,17 @@ public class ComponentSubsystem extends SubsystemBase implements Loggable {
      */
     @Override
     public void periodic() {
-        for (Component componentWithName : namedComponents.values()) {
-            componentWithName.periodic();
+        freeze();
+        if (!timed) {
+            for (Component component : components) {
+                component.periodic();
+            }
+            return;
+        }
+        for (int i = 0; i < components.length; i++) {
+            long start = System.nanoTime();
+            components[i].periodic();
+            periodicMs[i] = (System.nanoTime() - start) / 1e6;
         }
     }
 
@@ -74,8 +141,51 @@ public class ComponentSubsystem extends SubsystemBase implements Loggable {
      */
     @Override
     public void log(String name) {
-        for (Map.Entry<String, Component> namedComponent : namedComponents.entrySet()) {
-            Logger.log(name, namedComponent.getKey(), namedComponent.getValue());
+        log(LogPath.of(name));
+    }
+
+    /**
+     * Logs all registered components under the given path handle.
+     * 
+     * @param path The path handle for this subsystem
+     * @see #log(String)
+     */
+    @Override
+    public void log(LogPath path) {
+        freeze();
+        if (path != logPath) {
+            resolvePaths(path);
+        }
+        if (!timed) {
+            for (int i = 0; i < components.length; i++) {
+                Logger.log(componentPaths[i], components[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < components.length; i++) {
+            long start = System.nanoTime();
+            Logger.log(componentPaths[i], components[i]);
+            logMs[i] = (System.nanoTime() - start) / 1e6;
+        }
+        for (int i = 0; i < components.length; i++) {
+            Logger.log(periodicTimeKeys[i], periodicMs[i]);
+            Logger.log(logTimeKeys[i], logMs[i]);
+        }
+    }
+
+    /**
+     * Resolves each component's log paths under a new subsystem path
+     */
+    private void resolvePaths(LogPath path) {
+        logPath = path;
+        componentPaths = new LogPath[components.length];
+        periodicTimeKeys = new LogKey[components.length];
+        logTimeKeys = new LogKey[components.length];
+        LogPath timingPath = path.child("Component Timing");
+        for (int i = 0; i < components.length; i++) {
+            componentPaths[i] = path.child(names[i]);
+            periodicTimeKeys[i] = timingPath.child(names[i]).key("Periodic Ms");
+            logTimeKeys[i] = timingPath.child(names[i]).key("Log Ms");
         }
     }
 
@@ -3,7 +3,7 @@ package frc.lib.component;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.lib.io.sensor.DigitalIO;
-import frc.lib.util.logging.Logger;
+import frc.lib.util.logging.LogPath;
 
 /**
  * A component wrapper for digital I/O sensors.
@@ -43,7 +43,17 @@ public class DigitalIOComponent implements Component {
      */
     @Override
     public void log(String path) {
-        Logger.log(path, io);
+        log(LogPath.of(path));
+    }
+
+    /**
+     * Logs the digital I/O state to the specified path handle.
+     * 
+     * @param path the logging path handle for this component's data
+     */
+    @Override
+    public void log(LogPath path) {
+        io.log(path);
     }
 
     /**
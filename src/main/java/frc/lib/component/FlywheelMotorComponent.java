@@ -1,11 +1,11 @@
 package frc.lib.component;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.setpoints.VelocitySetpoint;
-import frc.lib.util.UnitsUtil;
 
 /**
  * A motor component specialized for velocity-controlled (usually flywheel) mechanisms.
@@ -48,7 +48,7 @@ public class FlywheelMotorComponent<M extends MotorIO> extends MotorComponent<M>
      * @return true if the current velocity is within epsilon of the target, false otherwise
      */
     public boolean nearVelocity(AngularVelocity velocity) {
-        return UnitsUtil.isNear(velocity, getVelocity(), epsilonThreshold);
+        return MathUtil.isNear(velocity.baseUnitMagnitude(), getVelocityRadiansPerSecond(), epsilonThreshold.baseUnitMagnitude());
     }
 
     /**
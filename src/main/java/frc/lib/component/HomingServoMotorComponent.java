@@ -1,5 +1,8 @@
 package frc.lib.component;
 
+import java.util.concurrent.CompletableFuture;
+
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.Debouncer;
 import edu.wpi.first.math.filter.Debouncer.DebounceType;
 import edu.wpi.first.units.BaseUnits;
@@ -11,7 +14,7 @@ import edu.wpi.first.units.measure.Voltage;
 import edu.wpi.first.wpilibj.DriverStation;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.setpoints.*;
-import frc.lib.util.UnitsUtil;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Logger;
 
 /**
@@ -40,7 +43,7 @@ import frc.lib.util.logging.Logger;
  * <li>Applies a constant voltage towards the hard stop</li>
  * <li>Monitors velocity to detect when the mechanism has stopped</li>
  * <li>Resets the encoder position once stopped</li>
- * <li>Re-enables soft limits and applies position control</li>
+ * <li>Waits for the reset to be applied, then re-enables soft limits and applies position control</li>
  * </ol>
  * 
  * @param <M> the type of MotorIO implementation used by this component
@@ -58,6 +61,12 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
      * Debouncer to ensure velocity has stabilized before declaring homing complete
      */
     private Debouncer homingDebouncer;
+    /** The setpoint applied while homing, reused so homing doesn't allocate */
+    private final MotorSetpoint homingSetpoint = new MotorSetpoint();
+    /** The reset to the home position once stopped, which has to land before holding home */
+    private CompletableFuture<Void> homeReset = null;
+    /** Whether the last reset to home failed, which stops homing until the mechanism leaves home */
+    private boolean homeResetFailed = false;
 
     public HomingServoMotorComponent(M motorIO, Angle epsilon, Angle startAngle, HomingConfig config) {
         super(motorIO, epsilon, startAngle);
@@ -66,17 +75,18 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
     }
 
     private boolean setpointIsHome() {
-        return getSetpoint() instanceof PositionSetpoint p && p.get().equals(homingConfig.homePosition);
+        MotorSetpoint setpoint = getMotorSetpoint();
+        return setpoint.getType().isPosition() && setpoint.getValue() == homingConfig.homePosition.baseUnitMagnitude();
     }
 
     /**
      * Checks if a given position is within tolerance of the home position.
      * 
-     * @param position the position to check
+     * @param positionRadians the position to check, in radians
      * @return true if the position is near home, false otherwise
      */
-    private boolean positionNearHome(Angle position) {
-        return UnitsUtil.isNear(homingConfig.homePosition, position, epsilonThreshold);
+    private boolean positionNearHome(double positionRadians) {
+        return MathUtil.isNear(homingConfig.homePosition.baseUnitMagnitude(), positionRadians, epsilonThreshold.baseUnitMagnitude());
     }
 
     /**
@@ -85,7 +95,7 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
      * @return true if the current position is near home, false otherwise
      */
     private boolean isNearHome() {
-        return positionNearHome(getPosition());
+        return positionNearHome(getPositionRadians());
     }
 
     /**
@@ -104,18 +114,31 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
     @Override
     public void periodic() {
         super.periodic();
-        if (needsToHome && setpointIsHome() && isNearHome()) { // If homing is needed, targeting the homing location,
+        if (needsToHome && !homeResetFailed && setpointIsHome() && isNearHome()) { // If homing is needed, targeting the homing location,
                                                                // and almost there
             beginHomingSequence(); // Start the homing sequence
         }
-        if (homing && DriverStation.isEnabled()) { // If homing (and enabled so the voltage is ACTUALLY being applied)
+        if (homing && homeReset != null) { // If the position is being reset to home
+            if (homeReset.isDone()) { // Wait for the reset to land, so holding home isn't done from the old position
+                boolean reset = !homeReset.isCompletedExceptionally();
+                homeReset = null;
+                if (reset) {
+                    needsToHome = false; // You just finished homing so no longer need to
+                    applySetpoint(homingConfig.homeSetpoint); // Target the homing location with position control so you don't keep slamming into it (this also ends homing sequence because new setpoint is applied)
+                } else {
+                    homeResetFailed = true; // Don't start homing again straight away, it would just fail again
+                    endHomingSequence(); // Stop homing, but still need to home as the position wasn't reset
+                    super.applySetpoint(homingConfig.homeSetpoint.writeTo(homingSetpoint)); // Stop pushing into the hard stop (skipping the override so the failure isn't cleared)
+                    DriverStation.reportWarning(
+                        "Failed to reset the position to home, homing again once sent away from home and back", false);
+                }
+            }
+        } else if (homing && DriverStation.isEnabled()) { // If homing (and enabled so the voltage is ACTUALLY being applied)
             if (homingDebouncer.calculate(
-                    getVelocity().abs(BaseUnits.AngleUnit.per(BaseUnits.TimeUnit)) <= homingConfig.homingVelocity
+                    Math.abs(getVelocityRadiansPerSecond()) <= homingConfig.homingVelocity
                             .baseUnitMagnitude())) { // If you've been under the homing velocity threshold for the
                                                      // debounce (if you've stopped)
-                resetPosition(homingConfig.homePosition); // You know you're at the home position so reset it
-                needsToHome = false; // You just finished homing so no longer need to
-                applySetpoint(homingConfig.homeSetpoint); // Target the homing location with position control so you don't keep slamming into it (this also ends homing sequence because new setpoint is applied)
+                homeReset = resetPosition(homingConfig.homePosition); // You know you're at the home position so reset it
             }
         }
     }
@@ -129,13 +152,14 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
      * @param setpoint the setpoint to apply
      */
     @Override
-    public void applySetpoint(BaseSetpoint<?> setpoint) {
+    public void applySetpoint(MotorSetpoint setpoint) {
         super.applySetpoint(setpoint); // Apply your setpoint
         if (homing) { // If you were in the middle of homing
             endHomingSequence(); // Cancel homing
         }
         if (!setpointIsHome()) { // If you're leaving your home position
             needsToHome = true; // You now need to rezero
+            homeResetFailed = false; // And can try homing again when you come back
         }
     }
 
@@ -154,7 +178,7 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
     public void beginHomingSequence() {
         homing = true; // Save that you are currently homing
         useSoftLimits(false); // Disable soft limits so you can physically hit the hardstop
-        super.applySetpoint(new VoltageSetpoint(homingConfig.homingVoltage)); // Go at your homing voltage (but don't
+        super.applySetpoint(homingSetpoint.set(SetpointType.VOLTAGE, homingConfig.homingVoltage.baseUnitMagnitude())); // Go at your homing voltage (but don't
                                                                               // apply setpoint normally so homing isn't
                                                                               // canceled)
         homingDebouncer.calculate(false); // Reset the debouncer
@@ -172,15 +196,17 @@ public class HomingServoMotorComponent<M extends MotorIO> extends ServoMotorComp
      */
     public void endHomingSequence() {
         homing = false; // Save that you're done homing
+        homeReset = null; // Stop waiting on a reset, as home won't be held after it
         useSoftLimits(true); // Turn soft limits back on
     }
 
     @Override
-    public void log(String path) {
+    public void log(LogPath path) {
         super.log(path);
-        String homingPath = path + "/Homing";
+        LogPath homingPath = path.child("Homing");
         Logger.log(homingPath, "Is Homing", homing);
         Logger.log(homingPath, "Needs To Home", needsToHome);
+        Logger.log(homingPath, "Home Reset Failed", homeResetFailed);
     }
 
 
@@ -1,17 +1,27 @@
 package frc.lib.component;
 
+import static edu.wpi.first.units.Units.Radians;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.MutAngle;
 import edu.wpi.first.units.measure.Temperature;
 import edu.wpi.first.units.measure.Voltage;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.FunctionalCommand;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.MotorOutputs;
+import frc.lib.io.motor.MotorSampler;
 import frc.lib.io.motor.setpoints.BaseSetpoint;
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+import frc.lib.io.motor.setpoints.SetpointType;
+import frc.lib.util.logging.LogPath;
 
 /**
  * A component that wraps motor controller functionality.
@@ -36,6 +46,10 @@ import frc.lib.io.motor.setpoints.BaseSetpoint;
  */
 public class MotorComponent<M extends MotorIO> implements Component {
     private final M io;
+    // Reused to adapt setpoint classes into motor setpoints
+    private final MotorSetpoint adaptedSetpoint = new MotorSetpoint();
+    private boolean latencyCompensated = false;
+    private final MutAngle compensatedPosition = Radians.mutable(0);
 
     /**
      * Constructs a new MotorComponent with the specified motor I/O interface.
@@ -65,6 +79,16 @@ public class MotorComponent<M extends MotorIO> implements Component {
      */
     @Override
     public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    /**
+     * Logs motor telemetry data to the specified path handle.
+     * 
+     * @param path the logging path handle for this component's data
+     */
+    @Override
+    public void log(LogPath path) {
         io.log(path);
     }
 
@@ -123,19 +147,85 @@ public class MotorComponent<M extends MotorIO> implements Component {
     /**
      * Gets the current position of the main motor.
      * 
+     * <p>
+     * The returned measure is a view that's updated in place, copy it to hold on to it.
+     * 
      * @return the motor position as an Angle measurement
+     * @see #getPositionRadians()
+     * @see #setLatencyCompensation(boolean)
      */
     public Angle getPosition() {
-        return getMotorOutputs()[0].position;
+        if (latencyCompensated) {
+            return compensatedPosition.mut_replace(getPositionRadians(), Radians);
+        }
+        return getMotorOutputs()[0].position();
     }
 
     /**
      * Gets the current velocity of the main motor.
      * 
+     * <p>
+     * The returned measure is a view that's updated in place, copy it to hold on to it.
+     * 
      * @return the motor velocity as an AngularVelocity measurement
+     * @see #getVelocityRadiansPerSecond()
      */
     public AngularVelocity getVelocity() {
-        return getMotorOutputs()[0].velocity;
+        return getMotorOutputs()[0].velocity();
+    }
+
+    /**
+     * Gets the current position of the main motor without creating a measure.
+     * 
+     * @return the motor position in radians
+     * @see #setLatencyCompensation(boolean)
+     */
+    public double getPositionRadians() {
+        MotorOutputs outputs = getMotorOutputs()[0];
+        return latencyCompensated ? outputs.latencyCompensatedPositionRadians() : outputs.positionRadians();
+    }
+
+    /**
+     * Gets the high rate sampler of the motor.
+     * 
+     * @return the sampler, or null if high rate sampling hasn't been started
+     * @see MotorIO#startHighRateSampling(double, int)
+     */
+    public MotorSampler getSampler() {
+        return io.getSampler();
+    }
+
+    /**
+     * Sets whether position is latency compensated.
+     * 
+     * <p>
+     * When enabled, the position returned by {@link #getPosition()} and
+     * {@link #getPositionRadians()}, and so used by tolerance checks, is extrapolated
+     * from the last sample using the velocity and the age of the sample. This gives
+     * the freshest estimate of position without raising the rate signals are sent at.
+     * 
+     * @param compensate true to latency compensate position, false to use the last sample
+     */
+    public void setLatencyCompensation(boolean compensate) {
+        latencyCompensated = compensate;
+    }
+
+    /**
+     * Gets how long ago the main motor's outputs were sampled.
+     * 
+     * @return the age of the outputs in seconds
+     */
+    public double getOutputAgeSeconds() {
+        return getMotorOutputs()[0].ageSeconds();
+    }
+
+    /**
+     * Gets the current velocity of the main motor without creating a measure.
+     * 
+     * @return the motor velocity in radians per second
+     */
+    public double getVelocityRadiansPerSecond() {
+        return getMotorOutputs()[0].velocityRadiansPerSecond();
     }
 
     /**
@@ -147,7 +237,7 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @return the stator voltage as a Voltage measurement
      */
     public Voltage getStatorVoltage() {
-        return getMotorOutputs()[0].statorVoltage;
+        return getMotorOutputs()[0].statorVoltage();
     }
 
     /**
@@ -160,7 +250,7 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @return the supply voltage as a Voltage measurement
      */
     public Voltage getSupplyVoltage() {
-        return getMotorOutputs()[0].supplyVoltage;
+        return getMotorOutputs()[0].supplyVoltage();
     }
 
     /**
@@ -172,7 +262,7 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @return the stator current as a Current measurement
      */
     public Current getStatorCurrent() {
-        return getMotorOutputs()[0].statorCurrent;
+        return getMotorOutputs()[0].statorCurrent();
     }
 
     /**
@@ -184,7 +274,7 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @return the supply current as a Current measurement
      */
     public Current getSupplyCurrent() {
-        return getMotorOutputs()[0].supplyCurrent;
+        return getMotorOutputs()[0].supplyCurrent();
     }
 
     /**
@@ -193,7 +283,7 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @return the motor temperature as a Temperature measurement
      */
     public Temperature getTemperature() {
-        return getMotorOutputs()[0].temperature;
+        return getMotorOutputs()[0].temperature();
     }
 
     /**
@@ -205,6 +295,15 @@ public class MotorComponent<M extends MotorIO> implements Component {
         return io.getCurrentSetpoint();
     }
 
+    /**
+     * Gets the current setpoint being applied to the motor, without creating a setpoint object.
+     * 
+     * @return the current setpoint, which shouldn't be modified
+     */
+    public MotorSetpoint getMotorSetpoint() {
+        return io.getCurrentMotorSetpoint();
+    }
+
     /**
      * Enables or disables soft limits for the motor.
      * 
@@ -225,9 +324,10 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * This is typically used during homing or calibration procedures.
      * 
      * @param position the new position value to set
+     * @return a future that completes once the position has been reset
      */
-    public void resetPosition(Angle position) {
-        io.resetPosition(position);
+    public CompletableFuture<Void> resetPosition(Angle position) {
+        return io.resetPosition(position);
     }
 
     /**
@@ -240,6 +340,20 @@ public class MotorComponent<M extends MotorIO> implements Component {
      * @param setpoint the setpoint to apply
      */
     public void applySetpoint(BaseSetpoint<?> setpoint) {
+        applySetpoint(setpoint.writeTo(adaptedSetpoint));
+    }
+
+    /**
+     * Applies a new control setpoint to the motor.
+     * 
+     * <p>
+     * The type and value are copied, so the same setpoint can be updated and
+     * applied again every loop without allocating. Subclasses that react to new
+     * setpoints should override this method, as every setpoint goes through it.
+     * 
+     * @param setpoint the setpoint to apply
+     */
+    public void applySetpoint(MotorSetpoint setpoint) {
         io.applySetpoint(setpoint);
     }
 
@@ -267,6 +381,67 @@ public class MotorComponent<M extends MotorIO> implements Component {
         return Commands.run(() -> applySetpoint(supplier.get()));
     }
 
+    /**
+     * Creates a command that continuously follows a dynamic setpoint value.
+     * 
+     * <p>
+     * Unlike {@link #followSetpointCommand(Supplier)}, a single setpoint is reused
+     * by the command, so following a value doesn't allocate every loop.
+     * 
+     * @param type the type of setpoint to follow
+     * @param supplier a supplier that provides the setpoint value, in the type's base unit
+     * @return a command that continuously applies the supplied value
+     */
+    public Command followSetpointCommand(SetpointType type, DoubleSupplier supplier) {
+        MotorSetpoint setpoint = new MotorSetpoint();
+        return Commands.run(() -> applySetpoint(setpoint.set(type, supplier.getAsDouble())));
+    }
+
+    /**
+     * Creates a command that resets the motor's position and ends once the reset
+     * has been applied.
+     * 
+     * @param position the new position value to set
+     * @return a command that resets the position and waits for it
+     */
+    public Command resetPositionCommand(Angle position) {
+        return awaitCommand(() -> resetPosition(position));
+    }
+
+    /**
+     * Creates a command that resets the motor's position, then applies a setpoint
+     * once the reset has been applied, so the setpoint is never chased from the
+     * old position.
+     * 
+     * <p>
+     * If the reset fails, the setpoint isn't applied.
+     * 
+     * @param position the new position value to set
+     * @param setpoint the setpoint to apply after the reset
+     * @return a command that resets the position, then applies the setpoint
+     */
+    public Command resetPositionThenApplySetpointCommand(Angle position, BaseSetpoint<?> setpoint) {
+        CompletableFuture<?>[] reset = new CompletableFuture<?>[1];
+        return awaitCommand(() -> reset[0] = resetPosition(position))
+            .andThen(applySetpointCommand(setpoint).onlyIf(() -> !reset[0].isCompletedExceptionally()));
+    }
+
+    /**
+     * Creates a command that starts a call and ends once the call's future completes.
+     * 
+     * @param call the call to start, which returns its future
+     * @return a command that waits for the call to complete
+     */
+    private static Command awaitCommand(Supplier<CompletableFuture<?>> call) {
+        CompletableFuture<?>[] future = new CompletableFuture<?>[1];
+        return new FunctionalCommand(
+            () -> future[0] = call.get(),
+            () -> {},
+            interrupted -> {},
+            () -> future[0].isDone()
+        );
+    }
+
     /**
      * Creates a command that enables the motor controller.
      * 
@@ -1,11 +1,11 @@
 package frc.lib.component;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.setpoints.PositionSetpoint;
-import frc.lib.util.UnitsUtil;
 
 /**
  * A motor component specialized for position-controlled servo mechanisms.
@@ -49,7 +49,7 @@ public class ServoMotorComponent<M extends MotorIO> extends MotorComponent<M> {
      * @return true if the current position is within epsilon of the target, false otherwise
      */
     public boolean nearPosition(Angle position) {
-        return UnitsUtil.isNear(position, getPosition(), epsilonThreshold);
+        return MathUtil.isNear(position.baseUnitMagnitude(), getPositionRadians(), epsilonThreshold.baseUnitMagnitude());
     }
 
     /**
@@ -0,0 +1,48 @@
+package frc.lib.io.motor;
+
+import edu.wpi.first.util.struct.StructSerializable;
+import frc.lib.io.motor.setpoints.*;
+
+/**
+ * A snapshot of a motor's setpoint, in the units the motor is set to log in.
+ * <p>
+ * This is reused by {@link MotorIO} every loop so the setpoint type and value can
+ * be logged as a single struct entry
+ * @see LoggedSetpointStruct
+ */
+public class LoggedSetpoint implements StructSerializable {
+    public static final LoggedSetpointStruct struct = new LoggedSetpointStruct();
+
+    /** Index of the setpoint type, see {@link LoggedSetpointStruct#typeNames} */
+    public int type;
+    /** The value of the setpoint in the motor's logged units */
+    public double value;
+
+    /**
+     * Updates this snapshot
+     * @param setpoint The setpoint to take the type from
+     * @param value The value of the setpoint, already converted into the logged unit
+     */
+    public void update(BaseSetpoint<?> setpoint, double value) {
+        update(setpoint.getType(), value);
+    }
+
+    /**
+     * Updates this snapshot
+     * @param type The type of the setpoint
+     * @param value The value of the setpoint, already converted into the logged unit
+     */
+    public void update(SetpointType type, double value) {
+        this.type = type.ordinal();
+        this.value = value;
+    }
+
+    /**
+     * Gets the type index of a setpoint
+     * @param setpoint The setpoint to get the type of
+     * @return The index of the setpoint's type in {@link LoggedSetpointStruct#typeNames}
+     */
+    public static int typeOf(BaseSetpoint<?> setpoint) {
+        return setpoint.getType().ordinal();
+    }
+}
@@ -0,0 +1,70 @@
+package frc.lib.io.motor;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * The struct used to log a {@link LoggedSetpoint}.
+ * <p>
+ * The setpoint type is packed as an enum so log viewers can show its name
+ * without a string being logged every loop
+ */
+public class LoggedSetpointStruct implements Struct<LoggedSetpoint> {
+    /** Names of the setpoint types, indexed by {@link LoggedSetpoint#type}, in the order of {@link frc.lib.io.motor.setpoints.SetpointType} */
+    public static final String[] typeNames = {
+        "IdleSetpoint",
+        "VoltageSetpoint",
+        "CurrentSetpoint",
+        "PositionSetpoint",
+        "ProfiledPositionSetpoint",
+        "VelocitySetpoint"
+    };
+
+    private static final String schema = buildSchema();
+
+    private static String buildSchema() {
+        StringBuilder builder = new StringBuilder("enum {");
+        for (int i = 0; i < typeNames.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(typeNames[i]).append('=').append(i);
+        }
+        return builder.append("} int8 type;double value").toString();
+    }
+
+    @Override
+    public Class<LoggedSetpoint> getTypeClass() {
+        return LoggedSetpoint.class;
+    }
+
+    @Override
+    public String getTypeName() {
+        return "LoggedSetpoint";
+    }
+
+    @Override
+    public int getSize() {
+        return kSizeInt8 + kSizeDouble;
+    }
+
+    @Override
+    public String getSchema() {
+        return schema;
+    }
+
+    @Override
+    public LoggedSetpoint unpack(ByteBuffer bb) {
+        LoggedSetpoint setpoint = new LoggedSetpoint();
+        setpoint.type = bb.get();
+        setpoint.value = bb.getDouble();
+        return setpoint;
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, LoggedSetpoint value) {
+        bb.put((byte) value.type);
+        bb.putDouble(value.value);
+    }
+}
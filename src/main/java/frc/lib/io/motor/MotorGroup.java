@@ -0,0 +1,98 @@
+package frc.lib.io.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Loggable;
+import frc.lib.util.logging.Logger;
+
+/**
+ * A group of motors whose setpoints change together, like the two sides of a differential mechanism.
+ * <p>
+ * Setpoints applied to a member during the loop are staged rather than sent, and
+ * {@link #flushAll()} sends every member's setpoint back to back at the end of the loop,
+ * the staged one if there is one and the current one otherwise, so the members never
+ * switch setpoints loops apart. Members are told to only send requests when a setpoint
+ * is sent, see {@link MotorIO#setSynchronizedControl(boolean)}.
+ * <p>
+ * Note: Members' requests are no longer resent by their controllers, so the group sending
+ * every member every loop is what keeps them alive and recovers a dropped request, which
+ * is why members don't deduplicate setpoints
+ */
+public final class MotorGroup implements Loggable {
+    private static final List<MotorGroup> groups = new ArrayList<>();
+    private static volatile MotorGroup[] flushOrder = new MotorGroup[0];
+
+    private final MotorIO[] members;
+    private final MotorSetpoint[] staged;
+    private final boolean[] isStaged;
+    private int flushes = 0;
+
+    /**
+     * Creates a group, which is flushed by {@link #flushAll()} from then on
+     * @param members The motors in the group
+     * @throws IllegalStateException If a motor is already in a group
+     */
+    public MotorGroup(MotorIO... members) {
+        this.members = members.clone();
+        staged = new MotorSetpoint[members.length];
+        isStaged = new boolean[members.length];
+        for (int i = 0; i < members.length; i++) {
+            staged[i] = new MotorSetpoint();
+            members[i].joinGroup(this, i);
+        }
+        synchronized (groups) {
+            groups.add(this);
+            flushOrder = groups.toArray(new MotorGroup[0]);
+        }
+    }
+
+    /**
+     * Stages a member's setpoint to be sent by the next flush, replacing any already staged
+     * @param index The member's index in the group
+     * @param setpoint The setpoint, which is copied
+     */
+    void stage(int index, MotorSetpoint setpoint) {
+        staged[index].set(setpoint);
+        isStaged[index] = true;
+    }
+
+    /**
+     * Sends every member's setpoint, the staged one if there is one and the current one otherwise
+     */
+    public void flush() {
+        for (int i = 0; i < members.length; i++) {
+            members[i].send(isStaged[i] ? staged[i] : members[i].getCurrentMotorSetpoint());
+            isStaged[i] = false;
+        }
+        flushes++;
+    }
+
+    /**
+     * Flushes every group, which should be done once a loop after every command has run
+     */
+    public static void flushAll() {
+        for (MotorGroup group : flushOrder) {
+            group.flush();
+        }
+    }
+
+    /**
+     * @return The number of times the members' setpoints have been sent
+     */
+    public int getFlushes() {
+        return flushes;
+    }
+
+    @Override
+    public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
+        Logger.log(path, "Flushes", flushes);
+    }
+}
@@ -1,23 +1,29 @@
 package frc.lib.io.motor;
 
+import java.util.concurrent.CompletableFuture;
+
+import static edu.wpi.first.units.Units.Amps;
 import static edu.wpi.first.units.Units.Radian;
+import static edu.wpi.first.units.Units.Radians;
 import static edu.wpi.first.units.Units.RadiansPerSecond;
-
-import java.util.Arrays;
+import static edu.wpi.first.units.Units.Volts;
 
 import edu.wpi.first.units.measure.*;
 import frc.lib.io.motor.setpoints.*;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 import edu.wpi.first.units.AngleUnit;
 import edu.wpi.first.units.AngularVelocityUnit;
 import edu.wpi.first.units.TemperatureUnit;
+import edu.wpi.first.wpilibj.DriverStation;
 
 /**
  * Base abstract class that represents a motor. 
  * <p>
  * Subclasses should be made for individual motor controllers, which override
- * the abstract methods which define how to use the hardware.
+ * the abstract methods which define how to use the hardware. The measures passed to
+ * those methods are reused between calls, so they shouldn't be held on to.
  * <p>
  * Sim classes should also override the {@link #periodic} method, where
  * they can utilize vendor simulation support, and both Sim and Real classes
@@ -25,11 +31,27 @@ import edu.wpi.first.units.TemperatureUnit;
  * @see Loggable
  */
 public abstract class MotorIO implements Loggable {
-    private BaseSetpoint<?> currentSetpoint;
+    private final MotorSetpoint currentSetpoint = new MotorSetpoint();
+    private BaseSetpoint<?> currentSetpointAdapter;
+    // Reused to adapt setpoint classes and to pass values to the hardware methods without allocating
+    private final MotorSetpoint adaptedSetpoint = new MotorSetpoint();
+    private final MutVoltage voltageView = Volts.mutable(0);
+    private final MutCurrent currentView = Amps.mutable(0);
+    private final MutAngle angleView = Radians.mutable(0);
+    private final MutAngularVelocity velocityView = RadiansPerSecond.mutable(0);
     private boolean enabled;
     private MotorOutputs[] outputs;
+    private final LoggedSetpoint loggedSetpoint = new LoggedSetpoint();
     private AngleUnit loggedPositionUnit;
     private AngularVelocityUnit loggedVelocityUnit;
+    private double setpointTolerance;
+    private int resendInterval;
+    private int suppressedSinceSend;
+    private int suppressedSends;
+    private boolean forceSend;
+    private MotorSampler sampler;
+    private MotorGroup group;
+    private int groupIndex;
 
     /**
      * Sets up the internal state for a MotorIO
@@ -41,7 +63,6 @@ public abstract class MotorIO implements Loggable {
             throw new IllegalArgumentException("Number of followers must be non-negative");
         }
 
-        currentSetpoint = new IdleSetpoint();
         outputs = new MotorOutputs[numFollowers + 1];
         for (int i = 0; i < numFollowers + 1; i++) {
             outputs[i] = new MotorOutputs();
@@ -49,6 +70,10 @@ public abstract class MotorIO implements Loggable {
         enabled = true;
         loggedPositionUnit = Radian;
         loggedVelocityUnit = RadiansPerSecond;
+        setpointTolerance = 0;
+        resendInterval = 50;
+        // The motor's actual state is unknown until the first setpoint is sent
+        forceSend = true;
     }
 
     /**
@@ -62,6 +87,7 @@ public abstract class MotorIO implements Loggable {
      */
     public final void enable() {
         enabled = true;
+        forceSend = true;
         applySetpoint(currentSetpoint);
     }
 
@@ -76,6 +102,7 @@ public abstract class MotorIO implements Loggable {
      */
     public final void disable() {
         enabled = false;
+        forceSend = true;
         setIdle();
     }
 
@@ -95,46 +122,145 @@ public abstract class MotorIO implements Loggable {
      * ownership of the value supplied
      * </p>
      * @param setpoint
+     * @see #applySetpoint(MotorSetpoint)
      */
     public final void applySetpoint(BaseSetpoint<?> setpoint) {
+        applySetpoint(setpoint.writeTo(adaptedSetpoint));
+    }
+
+    /**
+     * <p>
+     * Applies the given setpoint to the motor
+     * </p>
+     * <p>
+     * Note: Copies the type and value from the supplied setpoint, so the same
+     * setpoint can be updated and applied again every loop
+     * </p>
+     * <p>
+     * A setpoint of the same type as the current one, with a value within the setpoint
+     * tolerance of it, isn't sent or copied, unless the resend interval has been reached.
+     * See {@link #setSetpointDeduplication(double, int)}
+     * </p>
+     * <p>
+     * Note: If the motor is in a {@link MotorGroup}, the setpoint is only staged, and
+     * is sent when the group is flushed at the end of the loop, without deduplication
+     * </p>
+     * @param setpoint
+     */
+    public final void applySetpoint(MotorSetpoint setpoint) {
+        if (group != null) {
+            group.stage(groupIndex, setpoint);
+            return;
+        }
+        send(setpoint);
+    }
+
+    /**
+     * Sends a setpoint to the hardware, unless it repeats the current setpoint
+     * @param setpoint The setpoint to send
+     */
+    final void send(MotorSetpoint setpoint) {
         if (enabled) {
-            // Because profiled position setpoint is a subclass of
-            // position setpoint, this check needs to be first.
-            // It is just nicer to not have to explicitly allow both position
-            // and profiled position if they both take an angle.
-            // However, it does enforce some ordering on this side
-            if (setpoint instanceof ProfiledPositionSetpoint p) {
-                setProfiledPosition(p.get());
-                currentSetpoint = new ProfiledPositionSetpoint(p.get());
-            } else if (setpoint instanceof PositionSetpoint p) {
-                setPosition(p.get());
-                currentSetpoint = new PositionSetpoint(p.get());
-            } else if (setpoint instanceof VelocitySetpoint v) {
-                setVelocity(v.get());
-                currentSetpoint = new VelocitySetpoint(v.get());
-            } else if (setpoint instanceof VoltageSetpoint v) {
-                setVoltage(v.get());
-                currentSetpoint = new VoltageSetpoint(v.get());
-            } else if (setpoint instanceof CurrentSetpoint c) {
-                setCurrent(c.get());
-                currentSetpoint = new CurrentSetpoint(c.get());
-            } else if (setpoint instanceof IdleSetpoint) {
-                setIdle();
-                currentSetpoint = new IdleSetpoint();
-            } else {
-                throw new RuntimeException("Unknown setpoint type. Please use one of the given setpoint types in frc.lib.motors.setpoints");
+            if (isRepeat(setpoint)) {
+                suppressedSends++;
+                suppressedSinceSend++;
+                return;
+            }
+            suppressedSinceSend = 0;
+            forceSend = false;
+            double value = setpoint.getValue();
+            switch (setpoint.getType()) {
+                case IDLE -> setIdle();
+                case VOLTAGE -> setVoltage(voltageView.mut_replace(value, Volts));
+                case CURRENT -> setCurrent(currentView.mut_replace(value, Amps));
+                case POSITION -> setPosition(angleView.mut_replace(value, Radians));
+                case PROFILED_POSITION -> setProfiledPosition(angleView.mut_replace(value, Radians));
+                case VELOCITY -> setVelocity(velocityView.mut_replace(value, RadiansPerSecond));
+            }
+            if (currentSetpoint.getType() != setpoint.getType() || currentSetpoint.getValue() != value) {
+                currentSetpoint.set(setpoint);
+                currentSetpointAdapter = null;
             }
         }
     }
 
+    /**
+     * @return Whether the setpoint repeats the current setpoint and doesn't need to be sent
+     */
+    private boolean isRepeat(MotorSetpoint setpoint) {
+        return !forceSend
+            && suppressedSinceSend < resendInterval
+            && setpoint.getType() == currentSetpoint.getType()
+            && Math.abs(setpoint.getValue() - currentSetpoint.getValue()) <= setpointTolerance;
+    }
+
+    /**
+     * Puts the motor in a group, so its setpoints are staged rather than sent right away.
+     * Deduplication is turned off, as the group sends every member's setpoint every loop
+     * @param group The group the motor is in
+     * @param index The motor's index in the group
+     * @throws IllegalStateException If the motor is already in a group
+     */
+    final void joinGroup(MotorGroup group, int index) {
+        if (this.group != null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is already in a motor group");
+        }
+        this.group = group;
+        this.groupIndex = index;
+        setpointTolerance = 0;
+        resendInterval = 0;
+        setSynchronizedControl(true);
+    }
+
+    /**
+     * Configures how repeated setpoints are skipped by {@link #applySetpoint(BaseSetpoint)}
+     * @param tolerance How far a setpoint's value can be from the current setpoint's value,
+     * in the base unit of the setpoint, and still be treated as unchanged
+     * @param resendInterval The most repeated setpoints in a row that can be skipped before one
+     * is sent anyway, so the motor is never left on a dropped request for long. 0 sends every setpoint
+     * @throws IllegalArgumentException If the tolerance or interval is negative
+     * @throws IllegalStateException If the motor is in a {@link MotorGroup}, whose members
+     * have to be sent every loop
+     */
+    public final void setSetpointDeduplication(double tolerance, int resendInterval) {
+        if (tolerance < 0 || resendInterval < 0) {
+            throw new IllegalArgumentException("Setpoint tolerance and resend interval must be non-negative");
+        }
+        if (group != null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is in a motor group, which doesn't deduplicate setpoints");
+        }
+        this.setpointTolerance = tolerance;
+        this.resendInterval = resendInterval;
+    }
+
+    /**
+     * @return The number of setpoints that were skipped because they repeated the current setpoint
+     */
+    public final int getSuppressedSends() {
+        return suppressedSends;
+    }
+
     /**
      * Gets the current setpoint
      * @implNote This does get updated even when the motor is disabled
+     * @implNote A new setpoint object is only created when the setpoint has changed,
+     * use {@link #getCurrentMotorSetpoint()} to avoid creating one at all
      */
     public final BaseSetpoint<?> getCurrentSetpoint() {
+        if (currentSetpointAdapter == null) {
+            currentSetpointAdapter = BaseSetpoint.of(currentSetpoint);
+        }
+        return currentSetpointAdapter;
+    }
+
+    /**
+     * Gets the current setpoint
+     * @implNote This returns the internal setpoint, so it shouldn't be modified
+     */
+    public final MotorSetpoint getCurrentMotorSetpoint() {
         return currentSetpoint;
     }
-    
+
     /**
      * Gets the outputs from all the motors
      * @implNote This returns the internal array, so be careful about modifying it
@@ -167,21 +293,86 @@ public abstract class MotorIO implements Loggable {
      */
     public void periodic() {
         updateOutputs(outputs);
+        if (sampler != null) {
+            sampler.drain();
+        }
+    }
+
+    /**
+     * Starts sampling the motor's position, velocity and stator current on a separate
+     * thread, at a much higher rate than the main loop. Samples are drained every
+     * {@link #periodic()}. Calling this again returns the sampler that's already running
+     * <p>
+     * Motors that don't support it report a warning and aren't sampled, see
+     * {@link #supportsHighRateSampling()}
+     * @param frequencyHz The rate to sample at, which has to be more than 0 and at most 1000 Hz
+     * @param capacity The number of samples kept, which should cover more than a loop's worth
+     * @return The sampler, which can be queried for the samples, or null if the motor doesn't
+     * support high rate sampling
+     * @throws IllegalArgumentException If the frequency is out of range
+     */
+    public final MotorSampler startHighRateSampling(double frequencyHz, int capacity) {
+        if (!(frequencyHz > 0 && frequencyHz <= 1000)) {
+            throw new IllegalArgumentException("Sampling frequency must be in (0, 1000] Hz, got " + frequencyHz);
+        }
+        if (!supportsHighRateSampling()) {
+            DriverStation.reportWarning(getClass().getSimpleName() + " doesn't support high rate sampling, it won't be sampled", false);
+            return null;
+        }
+        if (sampler == null) {
+            sampler = new MotorSampler(getClass().getSimpleName() + " Sampler", createSampleSource(frequencyHz), capacity);
+            sampler.start();
+        }
+        return sampler;
+    }
+
+    /**
+     * @return The high rate sampler, or null if high rate sampling hasn't been started
+     */
+    public final MotorSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @return Whether the motor can be sampled by {@link #startHighRateSampling(double, int)}
+     * @implNote Motors that support high rate sampling should override this along with
+     * {@link #createSampleSource(double)}
+     */
+    public boolean supportsHighRateSampling() {
+        return false;
+    }
+
+    /**
+     * Creates the source of samples for high rate sampling
+     * @implNote Only called if {@link #supportsHighRateSampling()} returns true
+     * @param frequencyHz The rate to sample at
+     * @return The source of samples
+     */
+    protected MotorSampler.Source createSampleSource(double frequencyHz) {
+        return null;
     }
 
     @Override
     public void log(String path) {
-        BaseSetpoint<?> setpoint = getCurrentSetpoint();
-        if (setpoint instanceof PositionSetpoint p) {
-            Logger.log(path, "Setpoint Value", p.get(), loggedPositionUnit);
-        } else if (setpoint instanceof VelocitySetpoint v) {
-            Logger.log(path, "Setpoint Value", v.get(), loggedVelocityUnit);
-        } else {
-            Logger.log(path, "Setpoint Value", setpoint.get());
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
+        double value = currentSetpoint.getValue();
+        switch (currentSetpoint.getType()) {
+            case POSITION, PROFILED_POSITION -> value = loggedPositionUnit.fromBaseUnits(value);
+            case VELOCITY -> value = loggedVelocityUnit.fromBaseUnits(value);
+            default -> { }
+        }
+        loggedSetpoint.update(currentSetpoint.getType(), value);
+        // Leader and followers are logged together as a single struct array entry
+        Logger.log(path.key("Setpoint"), loggedSetpoint);
+        Logger.log(path, "Suppressed Setpoint Sends", suppressedSends);
+        Logger.log(path.key("Outputs"), outputs);
+        if (sampler != null) {
+            Logger.log(path, "High Rate Samples", sampler);
         }
-        Logger.log(path, "Setpoint Type", getCurrentSetpoint().getName());
-        Logger.log(path, "Main", outputs[0]);
-        Logger.log(path, "Followers", Arrays.copyOfRange(outputs, 1, outputs.length));
     }
 
 
@@ -222,6 +413,15 @@ public abstract class MotorIO implements Loggable {
      */
     protected abstract void setProfiledPosition(Angle position);
 
+    /**
+     * Tells the motor whether its setpoints are sent by a {@link MotorGroup}. Motors whose
+     * controllers resend requests on their own schedule should only send them when a setpoint
+     * is sent, so a group's requests go out together
+     * @implNote This does nothing by default, and is intended to be overridden by subclasses
+     * @param synchronizedControl Whether the motor's setpoints are sent by a group
+     */
+    protected void setSynchronizedControl(boolean synchronizedControl) {}
+
     /**
      * Commands the motor to idle. Whether this causes the motor to brake or coast
      * depends on the motor's current config
@@ -243,8 +443,9 @@ public abstract class MotorIO implements Loggable {
      * <p>
      * Note that because this is a config changing call, it may be done on a seperate
      * thread, which means that lines of code after this can't assume this config
-     * has been applied 
+     * has been applied until the returned future completes
      * @param position The actual current position of the motor
+     * @return A future that completes once the position has been reset
      */
-    public abstract void resetPosition(Angle position);
+    public abstract CompletableFuture<Void> resetPosition(Angle position);
 }
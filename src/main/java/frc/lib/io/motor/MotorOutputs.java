@@ -4,46 +4,68 @@ import static edu.wpi.first.units.Units.*;
 
 import edu.wpi.first.units.AngleUnit;
 import edu.wpi.first.units.AngularVelocityUnit;
-import edu.wpi.first.units.BaseUnits;
 import edu.wpi.first.units.TemperatureUnit;
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.MutAngle;
+import edu.wpi.first.units.measure.MutAngularVelocity;
+import edu.wpi.first.units.measure.MutCurrent;
+import edu.wpi.first.units.measure.MutTemperature;
+import edu.wpi.first.units.measure.MutVoltage;
 import edu.wpi.first.units.measure.Temperature;
 import edu.wpi.first.units.measure.Voltage;
+import edu.wpi.first.util.struct.StructSerializable;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 
 /**
  * A class that represents the outputs that all motors must log
+ * <p>
+ * Outputs are stored as primitives in base units (radians, radians per second, volts,
+ * amps and degrees celsius), so filling and comparing them every loop doesn't allocate.
+ * Measures of the outputs are available through views, which are made the first time
+ * they're asked for and then updated in place.
+ * <p>
+ * Every output carries the FPGA time its values were sampled at, so code acting on
+ * them can tell how old they are, and position can be extrapolated to the present
+ * with {@link #latencyCompensatedPositionRadians()}.
+ * <p>
+ * Outputs can either be logged field by field as a {@link Loggable}, or as a single
+ * struct entry using {@link #struct}
  * @see Loggable
+ * @see MotorOutputsStruct
  */
-public class MotorOutputs implements Loggable {
-    public Angle position;
-    public AngularVelocity velocity;
-    public Voltage supplyVoltage;
-    public Voltage statorVoltage;
-    public Current statorCurrent;
-    public Current supplyCurrent;
-    public Temperature temperature;
+public class MotorOutputs implements Loggable, StructSerializable {
+    public static final MotorOutputsStruct struct = new MotorOutputsStruct();
 
-    private AngleUnit loggedPositionUnit;
-    private AngularVelocityUnit loggedVelocityUnit;
-    private TemperatureUnit loggedTemperatureUnit;
+    private double positionRadians;
+    private double velocityRadiansPerSecond;
+    private double supplyVolts;
+    private double statorVolts;
+    private double statorAmps;
+    private double supplyAmps;
+    private double temperatureCelsius;
+    private double timestampSeconds;
+
+    private MutAngle positionView;
+    private MutAngularVelocity velocityView;
+    private MutVoltage supplyVoltageView;
+    private MutVoltage statorVoltageView;
+    private MutCurrent statorCurrentView;
+    private MutCurrent supplyCurrentView;
+    private MutTemperature temperatureView;
+
+    AngleUnit loggedPositionUnit = Radians;
+    AngularVelocityUnit loggedVelocityUnit = RadiansPerSecond;
+    TemperatureUnit loggedTemperatureUnit = Celsius;
 
     /**
      * Creates a motor ouput with zeroes for all fields
      */
-    public MotorOutputs() {
-        this(BaseUnits.AngleUnit.zero(), 
-        BaseUnits.AngleUnit.per(BaseUnits.TimeUnit).zero(), 
-        BaseUnits.VoltageUnit.zero(), 
-        BaseUnits.VoltageUnit.zero(), 
-        BaseUnits.CurrentUnit.zero(), 
-        BaseUnits.CurrentUnit.zero(), 
-        BaseUnits.TemperatureUnit.zero() 
-        );
-    }
+    public MotorOutputs() {}
 
     /**
      * Creates a motor output with the given fields
@@ -64,27 +86,215 @@ public class MotorOutputs implements Loggable {
         Current supplyCurrent,
         Temperature temperature
     ) {
-        this.position = position;
-        this.velocity = velocity;
-        this.supplyVoltage = supplyVoltage;
-        this.statorVoltage = statorVoltage;
-        this.statorCurrent = statorCurrent;
-        this.supplyCurrent = supplyCurrent;
-        this.temperature = temperature;
-        loggedPositionUnit = Radians;
-        loggedVelocityUnit = RadiansPerSecond;
-        loggedTemperatureUnit = Celsius;
+        set(
+            position.in(Radians),
+            velocity.in(RadiansPerSecond),
+            supplyVoltage.in(Volts),
+            statorVoltage.in(Volts),
+            statorCurrent.in(Amps),
+            supplyCurrent.in(Amps),
+            temperature.in(Celsius)
+        );
+    }
+
+    /**
+     * Sets every field of the output at once, in base units
+     * @param positionRadians The output's position in radians
+     * @param velocityRadiansPerSecond The output's velocity in radians per second
+     * @param supplyVolts The output's supply voltage in volts
+     * @param statorVolts The output's stator voltage in volts
+     * @param statorAmps The output's stator current in amps
+     * @param supplyAmps The output's supply current in amps
+     * @param temperatureCelsius The output's temperature in degrees celsius
+     */
+    public void set(
+        double positionRadians,
+        double velocityRadiansPerSecond,
+        double supplyVolts,
+        double statorVolts,
+        double statorAmps,
+        double supplyAmps,
+        double temperatureCelsius
+    ) {
+        this.positionRadians = positionRadians;
+        this.velocityRadiansPerSecond = velocityRadiansPerSecond;
+        this.supplyVolts = supplyVolts;
+        this.statorVolts = statorVolts;
+        this.statorAmps = statorAmps;
+        this.supplyAmps = supplyAmps;
+        this.temperatureCelsius = temperatureCelsius;
+    }
+
+    /**
+     * Sets the time the outputs were sampled at
+     * @param timestampSeconds The FPGA time of the sample, in seconds
+     */
+    public void setTimestamp(double timestampSeconds) {
+        this.timestampSeconds = timestampSeconds;
+    }
+
+    /**
+     * @return The FPGA time the outputs were sampled at, in seconds
+     */
+    public double timestampSeconds() {
+        return timestampSeconds;
+    }
+
+    /**
+     * @return How long ago the outputs were sampled, in seconds
+     */
+    public double ageSeconds() {
+        return Timer.getFPGATimestamp() - timestampSeconds;
+    }
+
+    /**
+     * Estimates the current position from the sampled position and velocity, the same
+     * way as {@link com.ctre.phoenix6.BaseStatusSignal#getLatencyCompensatedValue}
+     * @return The estimated current position in radians
+     */
+    public double latencyCompensatedPositionRadians() {
+        return positionRadians + velocityRadiansPerSecond * ageSeconds();
+    }
+
+    /**
+     * @return The position in radians
+     */
+    public double positionRadians() {
+        return positionRadians;
+    }
+
+    /**
+     * @return The velocity in radians per second
+     */
+    public double velocityRadiansPerSecond() {
+        return velocityRadiansPerSecond;
+    }
+
+    /**
+     * @return The supply voltage in volts
+     */
+    public double supplyVolts() {
+        return supplyVolts;
+    }
+
+    /**
+     * @return The stator voltage in volts
+     */
+    public double statorVolts() {
+        return statorVolts;
+    }
+
+    /**
+     * @return The stator current in amps
+     */
+    public double statorAmps() {
+        return statorAmps;
+    }
+
+    /**
+     * @return The supply current in amps
+     */
+    public double supplyAmps() {
+        return supplyAmps;
+    }
+
+    /**
+     * @return The temperature in degrees celsius
+     */
+    public double temperatureCelsius() {
+        return temperatureCelsius;
+    }
+
+    /*
+     * Measure views, each one is a single mutable measure owned by these outputs that's
+     * brought up to date whenever it's asked for. Callers that hold on to a view past the
+     * next update should copy() it.
+     */
+
+    /**
+     * @return A view of the position, updated in place
+     */
+    public Angle position() {
+        if (positionView == null) {
+            positionView = Radians.mutable(0);
+        }
+        return positionView.mut_replace(positionRadians, Radians);
+    }
+
+    /**
+     * @return A view of the velocity, updated in place
+     */
+    public AngularVelocity velocity() {
+        if (velocityView == null) {
+            velocityView = RadiansPerSecond.mutable(0);
+        }
+        return velocityView.mut_replace(velocityRadiansPerSecond, RadiansPerSecond);
+    }
+
+    /**
+     * @return A view of the supply voltage, updated in place
+     */
+    public Voltage supplyVoltage() {
+        if (supplyVoltageView == null) {
+            supplyVoltageView = Volts.mutable(0);
+        }
+        return supplyVoltageView.mut_replace(supplyVolts, Volts);
+    }
+
+    /**
+     * @return A view of the stator voltage, updated in place
+     */
+    public Voltage statorVoltage() {
+        if (statorVoltageView == null) {
+            statorVoltageView = Volts.mutable(0);
+        }
+        return statorVoltageView.mut_replace(statorVolts, Volts);
+    }
+
+    /**
+     * @return A view of the stator current, updated in place
+     */
+    public Current statorCurrent() {
+        if (statorCurrentView == null) {
+            statorCurrentView = Amps.mutable(0);
+        }
+        return statorCurrentView.mut_replace(statorAmps, Amps);
+    }
+
+    /**
+     * @return A view of the supply current, updated in place
+     */
+    public Current supplyCurrent() {
+        if (supplyCurrentView == null) {
+            supplyCurrentView = Amps.mutable(0);
+        }
+        return supplyCurrentView.mut_replace(supplyAmps, Amps);
+    }
+
+    /**
+     * @return A view of the temperature, updated in place
+     */
+    public Temperature temperature() {
+        if (temperatureView == null) {
+            temperatureView = Celsius.mutable(0);
+        }
+        return temperatureView.mut_replace(temperatureCelsius, Celsius);
     }
 
     @Override
     public void log(String path) {
-        Logger.log(path, "Position", position, loggedPositionUnit);
-        Logger.log(path, "Velocity", velocity, loggedVelocityUnit);
-        Logger.log(path, "Supply Voltage", supplyVoltage);
-        Logger.log(path, "Stator Voltage", statorVoltage);
-        Logger.log(path, "Stator Current", statorCurrent);
-        Logger.log(path, "Supply Current", supplyCurrent);
-        Logger.log(path, "Temperature", temperature, loggedTemperatureUnit);
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
+        Logger.log(path, "Position", position(), loggedPositionUnit);
+        Logger.log(path, "Velocity", velocity(), loggedVelocityUnit);
+        Logger.log(path, "Supply Voltage", supplyVoltage());
+        Logger.log(path, "Stator Voltage", statorVoltage());
+        Logger.log(path, "Stator Current", statorCurrent());
+        Logger.log(path, "Supply Current", supplyCurrent());
+        Logger.log(path, "Temperature", temperature(), loggedTemperatureUnit);
     }
 
     /**
@@ -102,4 +312,4 @@ public class MotorOutputs implements Loggable {
         this.loggedVelocityUnit = loggedVelocityUnit;
         this.loggedTemperatureUnit = loggedTemperatureUnit;
     }
-}
\ No newline at end of file
+}
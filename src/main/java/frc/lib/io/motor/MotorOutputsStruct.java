@@ -0,0 +1,66 @@
+package frc.lib.io.motor;
+
+import static edu.wpi.first.units.Units.Celsius;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * The struct used to log {@link MotorOutputs}.
+ * <p>
+ * Position, velocity and temperature are packed in the units the outputs are set to
+ * log in, voltages are packed in volts and currents are packed in amps. Everything
+ * other than position and velocity is packed as a float, as the extra precision of a
+ * double is just noise for those signals.
+ * <p>
+ * Note: Because the logged units aren't part of the packed data, unpacked outputs
+ * treat the packed values as being in the default logged units (base units and celsius)
+ */
+public class MotorOutputsStruct implements Struct<MotorOutputs> {
+    @Override
+    public Class<MotorOutputs> getTypeClass() {
+        return MotorOutputs.class;
+    }
+
+    @Override
+    public String getTypeName() {
+        return "MotorOutputs";
+    }
+
+    @Override
+    public int getSize() {
+        return kSizeDouble * 2 + kSizeFloat * 5;
+    }
+
+    @Override
+    public String getSchema() {
+        return "double position;double velocity;float supply_voltage;float stator_voltage;"
+            + "float stator_current;float supply_current;float temperature";
+    }
+
+    @Override
+    public MotorOutputs unpack(ByteBuffer bb) {
+        double position = bb.getDouble();
+        double velocity = bb.getDouble();
+        double supplyVoltage = bb.getFloat();
+        double statorVoltage = bb.getFloat();
+        double statorCurrent = bb.getFloat();
+        double supplyCurrent = bb.getFloat();
+        double temperature = bb.getFloat();
+        MotorOutputs outputs = new MotorOutputs();
+        outputs.set(position, velocity, supplyVoltage, statorVoltage, statorCurrent, supplyCurrent, temperature);
+        return outputs;
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, MotorOutputs value) {
+        bb.putDouble(value.loggedPositionUnit.fromBaseUnits(value.positionRadians()));
+        bb.putDouble(value.loggedVelocityUnit.fromBaseUnits(value.velocityRadiansPerSecond()));
+        bb.putFloat((float) value.supplyVolts());
+        bb.putFloat((float) value.statorVolts());
+        bb.putFloat((float) value.statorAmps());
+        bb.putFloat((float) value.supplyAmps());
+        bb.putFloat((float) value.loggedTemperatureUnit.convertFrom(value.temperatureCelsius(), Celsius));
+    }
+}
@@ -0,0 +1,243 @@
+package frc.lib.io.motor;
+
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Loggable;
+import frc.lib.util.logging.Logger;
+
+/**
+ * Samples a motor's signals on its own thread, much faster than the main loop.
+ * <p>
+ * The sampling thread writes into a lock-free ring, which the main loop drains into
+ * a history once a loop through {@link #drain()}. Queries only ever read the history,
+ * so they never block or see a half written sample. The min and max cover every sample
+ * drained by the last drain, so short events between loops, like a flywheel's dip as
+ * a shot passes through it, still show up.
+ * <p>
+ * Note: The ring only has a single writer and a single reader. If the main loop falls
+ * a full ring behind, the oldest samples are dropped
+ * @see MotorIO#startHighRateSampling(double, int)
+ */
+public final class MotorSampler implements Loggable {
+    /**
+     * The values recorded in each sample, all in base units
+     */
+    public enum Channel {
+        POSITION,
+        VELOCITY,
+        STATOR_CURRENT
+    }
+
+    /**
+     * Where samples come from, called repeatedly on the sampling thread
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Waits for the next sample and writes it into the given array, indexed by {@link Channel#ordinal()}
+         * @param values The array to write the sample into
+         * @return The FPGA time of the sample in seconds, or NaN if no sample arrived in time
+         * @throws InterruptedException If the sampling thread was stopped while waiting
+         */
+        double waitForSample(double[] values) throws InterruptedException;
+    }
+
+    private static final int channelCount = Channel.values().length;
+    private static final Channel[] channels = Channel.values();
+
+    private final Source source;
+    private final int capacity;
+    // The history has a spare slot, which a sample is copied into before it's known to be intact
+    private final int historySize;
+    private final Thread thread;
+
+    // Written only by the sampling thread, read by the main loop once published
+    private final double[] ringValues;
+    private final double[] ringTimestamps;
+    private volatile long written = 0;
+    private volatile long timeouts = 0;
+
+    // Owned by the main loop
+    private final double[] historyValues;
+    private final double[] historyTimestamps;
+    private long read = 0;
+    private long historyCount = 0;
+    private long droppedSamples = 0;
+    private int lastDrainCount = 0;
+    private final double[] min = new double[channelCount];
+    private final double[] max = new double[channelCount];
+
+    /**
+     * Creates a sampler, which doesn't sample until started
+     * @param name The name of the sampling thread
+     * @param source Where samples come from
+     * @param capacity The number of samples the ring and the history can each hold
+     */
+    public MotorSampler(String name, Source source, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sampler capacity must be at least 1, got " + capacity);
+        }
+        this.source = source;
+        this.capacity = capacity;
+        this.historySize = capacity + 1;
+        ringValues = new double[capacity * channelCount];
+        ringTimestamps = new double[capacity];
+        historyValues = new double[historySize * channelCount];
+        historyTimestamps = new double[historySize];
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the sampling thread
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the sampling thread, samples already taken can still be drained
+     */
+    public void stop() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        double[] sample = new double[channelCount];
+        while (!Thread.currentThread().isInterrupted()) {
+            double timestamp;
+            try {
+                timestamp = source.waitForSample(sample);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (Double.isNaN(timestamp)) {
+                timeouts++;
+                continue;
+            }
+            long index = written;
+            int slot = (int) (index % capacity);
+            System.arraycopy(sample, 0, ringValues, slot * channelCount, channelCount);
+            ringTimestamps[slot] = timestamp;
+            // Publishing the index is what makes the sample visible to the main loop
+            written = index + 1;
+        }
+    }
+
+    /**
+     * Moves every new sample from the ring into the history, and recomputes the min
+     * and max over them. Should be called once a loop, from the main loop only
+     * @return The number of samples drained
+     */
+    public int drain() {
+        long end = written;
+        long start = Math.max(read, end - capacity);
+        droppedSamples += start - read;
+        for (int c = 0; c < channelCount; c++) {
+            min[c] = Double.NaN;
+            max[c] = Double.NaN;
+        }
+        int count = 0;
+        for (long index = start; index < end; index++) {
+            int slot = (int) (index % capacity);
+            int historySlot = (int) (historyCount % historySize);
+            int historyBase = historySlot * channelCount;
+            System.arraycopy(ringValues, slot * channelCount, historyValues, historyBase, channelCount);
+            historyTimestamps[historySlot] = ringTimestamps[slot];
+            // A slot is overwritten while the sample a full ring later is written, so if that
+            // sample has been started, the copy may be torn and is thrown out
+            if (written - capacity >= index) {
+                droppedSamples++;
+                continue;
+            }
+            historyCount++;
+            count++;
+            for (int c = 0; c < channelCount; c++) {
+                double value = historyValues[historyBase + c];
+                if (!(value >= min[c])) {
+                    min[c] = value;
+                }
+                if (!(value <= max[c])) {
+                    max[c] = value;
+                }
+            }
+        }
+        read = end;
+        lastDrainCount = count;
+        return count;
+    }
+
+    /**
+     * @return The number of samples taken by the last drain
+     */
+    public int getLastDrainCount() {
+        return lastDrainCount;
+    }
+
+    /**
+     * @param channel The channel to get the minimum of
+     * @return The smallest value of the channel in the samples taken by the last drain, or NaN if there were none
+     */
+    public double getMin(Channel channel) {
+        return min[channel.ordinal()];
+    }
+
+    /**
+     * @param channel The channel to get the maximum of
+     * @return The largest value of the channel in the samples taken by the last drain, or NaN if there were none
+     */
+    public double getMax(Channel channel) {
+        return max[channel.ordinal()];
+    }
+
+    /**
+     * Copies the most recent values of a channel, oldest first
+     * @param channel The channel to copy
+     * @param values The array to copy into, as many samples as fit are copied
+     * @param timestamps An array to copy the FPGA times of the samples into, or null
+     * @return The number of samples copied, which may be less than the length of the
+     * array if fewer samples have been taken
+     */
+    public int getLast(Channel channel, double[] values, double[] timestamps) {
+        int count = (int) Math.min(values.length, Math.min(historyCount, capacity));
+        long start = historyCount - count;
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((start + i) % historySize);
+            values[i] = historyValues[slot * channelCount + channel.ordinal()];
+            if (timestamps != null) {
+                timestamps[i] = historyTimestamps[slot];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of samples dropped because the main loop fell behind
+     */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+
+    /**
+     * @return The number of times no sample arrived in time
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
+        Logger.log(path, "Samples Per Loop", lastDrainCount);
+        Logger.log(path, "Dropped Samples", (int) droppedSamples);
+        Logger.log(path, "Timeouts", (int) timeouts);
+        for (Channel channel : channels) {
+            LogPath channelPath = path.child(channel.name());
+            Logger.log(channelPath, "Min", min[channel.ordinal()]);
+            Logger.log(channelPath, "Max", max[channel.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package frc.lib.io.motor;
+
+import java.util.concurrent.CompletableFuture;
+
+import edu.wpi.first.units.measure.*;
+
+/**
+ * A motor with no hardware behind it, which takes every setpoint and does nothing with it.
+ * <p>
+ * Used to exercise the code between a setpoint and the hardware, like setpoint dispatch and
+ * logging, without anything moving, for example to warm it up while the robot is disabled
+ */
+public class NoOpMotorIO extends MotorIO {
+    /**
+     * Creates a motor with no followers
+     */
+    public NoOpMotorIO() {
+        super(0);
+        // Every setpoint is sent, so the whole path to the hardware is run
+        setSetpointDeduplication(0, 0);
+    }
+
+    @Override
+    protected void updateOutputs(MotorOutputs[] outputs) {}
+
+    @Override
+    protected void setVoltage(Voltage voltage) {}
+
+    @Override
+    protected void setCurrent(Current current) {}
+
+    @Override
+    protected void setPosition(Angle angle) {}
+
+    @Override
+    protected void setVelocity(AngularVelocity velocity) {}
+
+    @Override
+    protected void setProfiledPosition(Angle position) {}
+
+    @Override
+    protected void setIdle() {}
+
+    @Override
+    public void useSoftLimits(boolean use) {}
+
+    @Override
+    public CompletableFuture<Void> resetPosition(Angle position) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
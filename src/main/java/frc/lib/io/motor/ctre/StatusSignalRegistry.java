@@ -0,0 +1,123 @@
+package frc.lib.io.motor.ctre;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Logger;
+
+/**
+ * A registry of every {@link BaseStatusSignal} that gets read each loop.
+ * <p>
+ * Signals are registered once when a device is constructed, and then {@link #refreshAll()}
+ * refreshes every signal on a CAN bus with a single call each loop. Anything reading
+ * a registered signal should get it without refreshing it again, as it's already
+ * been refreshed for the loop.
+ * <p>
+ * Note: {@link #refreshAll()} should be called at the start of every loop, before
+ * any subsystem reads its signals
+ */
+public final class StatusSignalRegistry {
+    // A frame with 8 data bytes is about 128 bits once stuffed, at a 1 Mbit/s arbitration rate
+    private static final double bitsPerFrame = 128;
+    private static final double bitsPerSecond = 1e6;
+
+    private static final Map<String, List<BaseStatusSignal>> signalsByBus = new LinkedHashMap<>();
+    private static volatile String[] busNames = new String[0];
+    private static volatile BaseStatusSignal[][] buses = new BaseStatusSignal[0][];
+
+    private StatusSignalRegistry() {}
+
+    /**
+     * Registers signals to be refreshed every loop
+     * @param canbus The CAN bus the signals' device is on
+     * @param signals The signals to refresh
+     */
+    public static synchronized void register(String canbus, BaseStatusSignal... signals) {
+        signalsByBus.computeIfAbsent(canbus, bus -> new ArrayList<>()).addAll(Arrays.asList(signals));
+        rebuild();
+    }
+
+    /**
+     * Stops refreshing signals every loop
+     * @param canbus The CAN bus the signals' device is on
+     * @param signals The signals to stop refreshing
+     */
+    public static synchronized void unregister(String canbus, BaseStatusSignal... signals) {
+        List<BaseStatusSignal> busSignals = signalsByBus.get(canbus);
+        if (busSignals != null) {
+            busSignals.removeAll(Arrays.asList(signals));
+            rebuild();
+        }
+    }
+
+    private static void rebuild() {
+        String[] newBusNames = new String[signalsByBus.size()];
+        BaseStatusSignal[][] newBuses = new BaseStatusSignal[signalsByBus.size()][];
+        int i = 0;
+        for (Map.Entry<String, List<BaseStatusSignal>> bus : signalsByBus.entrySet()) {
+            newBusNames[i] = bus.getKey();
+            newBuses[i++] = bus.getValue().toArray(new BaseStatusSignal[0]);
+        }
+        busNames = newBusNames;
+        buses = newBuses;
+    }
+
+    /**
+     * Refreshes every registered signal, with one call for each CAN bus
+     */
+    public static void refreshAll() {
+        for (BaseStatusSignal[] signals : buses) {
+            if (signals.length > 0) {
+                BaseStatusSignal.refreshAll(signals);
+            }
+        }
+    }
+
+    /**
+     * Estimates the share of a CAN bus used by the status frames of the registered signals,
+     * from the update frequencies the devices report having applied.
+     * <p>
+     * This is a lower bound on the bus's real load, as it leaves out control frames, config
+     * writes, other devices, and any signal that's read without being registered, like duty
+     * cycle or torque current. Each registered signal is counted as its own classic CAN frame,
+     * which only overestimates the share of the status frames it does count, when signals
+     * share a frame or the bus is CAN FD
+     * @param canbus The CAN bus to estimate the load of
+     * @return The estimated load, from 0 to 1
+     */
+    public static double getEstimatedLoad(String canbus) {
+        String[] names = busNames;
+        BaseStatusSignal[][] signals = buses;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(canbus)) {
+                double framesPerSecond = 0;
+                for (BaseStatusSignal signal : signals[i]) {
+                    framesPerSecond += signal.getAppliedUpdateFrequency();
+                }
+                return framesPerSecond * bitsPerFrame / bitsPerSecond;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Logs the estimated status frame load of every CAN bus with registered signals, as a percentage
+     * @see #getEstimatedLoad(String)
+     * @param path The path to log each bus's load under, which should be given a slow
+     * {@link frc.lib.util.logging.LogRate}, as estimating the load reads every signal's frequency
+     */
+    public static void logEstimatedLoad(LogPath path) {
+        if (!Logger.shouldLog(path)) {
+            return;
+        }
+        for (String canbus : busNames) {
+            Logger.log(path, canbus, getEstimatedLoad(canbus) * 100);
+        }
+    }
+}
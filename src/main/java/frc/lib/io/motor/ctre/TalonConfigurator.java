@@ -0,0 +1,210 @@
+package frc.lib.io.motor.ctre;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.ParentConfiguration;
+import com.ctre.phoenix6.configs.SoftwareLimitSwitchConfigs;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import edu.wpi.first.units.measure.Angle;
+import frc.lib.util.BlockingCallExecutor.Priority;
+import frc.lib.util.ConfigFingerprints;
+import frc.lib.util.StartupConfiguration;
+import frc.robot.Robot;
+
+/**
+ * Configures a talon and its followers, which is the same for every kind of talon other than
+ * the device and config classes, so each kind of talon fills in the calls that use them.
+ * <p>
+ * Every write waits on the talons' boot config, so nothing written later is overwritten by it.
+ * Writes are made off the main loop, see {@link Robot#submitBlockingCall(Priority, Runnable)}
+ * @param <T> The kind of talon
+ * @param <C> The talon's config
+ */
+abstract class TalonConfigurator<T extends ParentDevice, C extends ParentConfiguration> {
+    private final T[] talons;
+    // The names the talons' config fingerprints are stored under
+    private final String[] deviceNames;
+    // Completes once the talons have their boot config, so nothing is written before it lands
+    private CompletableFuture<Void> configured;
+    // A copy of the latest config and whether soft limits are used, which calls waiting on
+    // the boot config read when they run, as they run newest first. The copy is never changed,
+    // so it can be read on the blocking thread while the caller keeps changing theirs
+    private volatile C config;
+    private volatile boolean softLimitsUsed = true;
+    // What soft limit writes are coalesced by, as the config they're read from is replaced by reconfigure
+    private final Object softLimitsKey = new Object();
+
+    /**
+     * @param talons The talons, leader first
+     * @param deviceType The kind of talon, which the talons' config fingerprints are stored under
+     * @param canbus The CAN bus the talons are on
+     */
+    TalonConfigurator(T[] talons, String deviceType, String canbus) {
+        this.talons = talons;
+        deviceNames = new String[talons.length];
+        for (int i = 0; i < talons.length; i++) {
+            deviceNames[i] = ConfigFingerprints.deviceName(deviceType, canbus, talons[i].getDeviceID());
+        }
+    }
+
+    /**
+     * @return A new config with every value at its default
+     */
+    abstract C create();
+
+    abstract StatusCode apply(T talon, C config);
+
+    abstract StatusCode applySoftLimits(T talon, SoftwareLimitSwitchConfigs softLimits);
+
+    abstract StatusCode refresh(T talon, C config);
+
+    abstract StatusCode setPosition(T talon, Angle position);
+
+    abstract SoftwareLimitSwitchConfigs getSoftLimits(C config);
+
+    /**
+     * @return A copy of the latest config given to the talons, which shouldn't be changed
+     */
+    C getConfig() {
+        return config;
+    }
+
+    private C copy(C config) {
+        C copy = create();
+        copy.deserialize(config.serialize());
+        return copy;
+    }
+
+    /**
+     * Configures the talons when the robot boots. Talons that were last given the same
+     * config, going by their {@link ConfigFingerprints}, aren't given it again, but are read
+     * back to check it's still there before anything else is written to them. The rest
+     * are configured with every other device by the {@link StartupConfiguration}
+     * @param config The config to apply
+     * @param canbus The CAN bus the talons are on
+     */
+    void configureAtBoot(C config, String canbus) {
+        C bootConfig = copy(config);
+        this.config = bootConfig;
+        String fingerprint = ConfigFingerprints.of(bootConfig.serialize());
+        CompletableFuture<?>[] applied = new CompletableFuture<?>[talons.length];
+        for (int i = 0; i < talons.length; i++) {
+            T talon = talons[i];
+            String device = deviceNames[i];
+            if (ConfigFingerprints.matches(device, fingerprint)) {
+                // A talon that fails to verify shouldn't hold back everything waiting on it,
+                // like one that fails to configure
+                applied[i] = Robot.submitBlockingCall(Priority.NORMAL, () -> verify(talon, device, bootConfig))
+                    .exceptionally(e -> null);
+            } else {
+                applied[i] = StartupConfiguration.submit(canbus, () -> {
+                    if (!apply(talon, device, bootConfig)) {
+                        throw new IllegalStateException("Failed to configure " + device);
+                    }
+                });
+            }
+        }
+        configured = CompletableFuture.allOf(applied);
+    }
+
+    /**
+     * Applies the given config to the talons once they have their boot config. A config
+     * that's replaced before it's applied is skipped. Its soft limits are only turned on
+     * if they're in use, see {@link #useSoftLimits(boolean)}
+     * @param config The config to apply
+     */
+    void reconfigure(C config) {
+        this.config = copy(config);
+        // Only the latest config is applied if several are waiting
+        configured.thenRun(() -> Robot.submitCoalescedCall(Priority.NORMAL, this, () -> {
+            C latest = copy(this.config);
+            SoftwareLimitSwitchConfigs softLimits = getSoftLimits(latest);
+            boolean used = softLimitsUsed;
+            softLimits.ForwardSoftLimitEnable &= used;
+            softLimits.ReverseSoftLimitEnable &= used;
+            for (int i = 0; i < talons.length; i++) {
+                apply(talons[i], deviceNames[i], latest);
+            }
+        }));
+    }
+
+    /**
+     * Applies a config to a talon, and records its fingerprint once it's been applied
+     * @return Whether the config was applied
+     */
+    private boolean apply(T talon, String device, C config) {
+        String fingerprint = ConfigFingerprints.of(config.serialize());
+        StatusCode status = StatusCode.StatusCodeNotInitialized;
+        for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
+            status = apply(talon, config);
+        }
+        if (status.isOK()) {
+            ConfigFingerprints.record(device, fingerprint);
+            // What the talon actually stored, which verify compares against on later boots
+            C readBack = create();
+            if (refresh(talon, readBack).isOK()) {
+                ConfigFingerprints.record(ConfigFingerprints.readBackName(device), ConfigFingerprints.of(readBack.serialize()));
+            }
+        }
+        return status.isOK();
+    }
+
+    /**
+     * Reads a talon's config back, and applies the given config if it doesn't match what the
+     * talon read back after it was last applied. The talon rounds what it stores, so its config
+     * can't be compared to the given one directly
+     */
+    private void verify(T talon, String device, C config) {
+        C actual = create();
+        StatusCode status = refresh(talon, actual);
+        if (!status.isOK()
+            || !ConfigFingerprints.matches(ConfigFingerprints.readBackName(device), ConfigFingerprints.of(actual.serialize()))) {
+            apply(talon, device, config);
+        }
+    }
+
+    /**
+     * Turns the talons' soft limits on or off, without rewriting the rest of their config.
+     * Soft limits the config doesn't turn on stay off
+     * @param use Whether to use the soft limits
+     */
+    void useSoftLimits(boolean use) {
+        softLimitsUsed = use;
+        // Only the soft limits are written, so toggling them doesn't rewrite the whole config.
+        // They're built when the write runs from the latest config, so an older toggle can't land last
+        configured.thenRun(() -> Robot.submitCoalescedCall(Priority.CRITICAL, softLimitsKey, () -> {
+            boolean used = softLimitsUsed;
+            SoftwareLimitSwitchConfigs limits = getSoftLimits(config);
+            SoftwareLimitSwitchConfigs softLimits = new SoftwareLimitSwitchConfigs();
+            softLimits.ForwardSoftLimitThreshold = limits.ForwardSoftLimitThreshold;
+            softLimits.ReverseSoftLimitThreshold = limits.ReverseSoftLimitThreshold;
+            softLimits.ForwardSoftLimitEnable = used && limits.ForwardSoftLimitEnable;
+            softLimits.ReverseSoftLimitEnable = used && limits.ReverseSoftLimitEnable;
+            for (T talon : talons) {
+                StatusCode status = StatusCode.StatusCodeNotInitialized;
+                for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
+                    status = applySoftLimits(talon, softLimits);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Resets the talons' positions once they have their boot config, as it sets the ratio
+     * the position is in
+     * @param position The position to reset to
+     * @return A future that completes once the positions have been reset
+     */
+    CompletableFuture<Void> resetPosition(Angle position) {
+        return configured.thenCompose(ignored -> Robot.submitBlockingCall(Priority.CRITICAL, () -> {
+            for (T talon : talons) {
+                StatusCode status = StatusCode.StatusCodeNotInitialized;
+                for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
+                    status = setPosition(talon, position);
+                }
+            }
+        }));
+    }
+}
@@ -1,14 +1,18 @@
 package frc.lib.io.motor.ctre;
 
+import java.util.concurrent.CompletableFuture;
+
 import static edu.wpi.first.units.Units.*;
 
 import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.SoftwareLimitSwitchConfigs;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.Follower;
 import com.ctre.phoenix6.controls.MotionMagicVoltage;
 import com.ctre.phoenix6.controls.NeutralOut;
 import com.ctre.phoenix6.controls.PositionVoltage;
 import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
 
 import edu.wpi.first.math.Pair;
@@ -16,20 +20,28 @@ import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Voltage;
+import edu.wpi.first.wpilibj.Timer;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.MotorOutputs;
+import frc.lib.io.motor.MotorSampler;
+import frc.lib.util.BlockingCallExecutor.Priority;
 import frc.robot.Robot;
 
 /**
  * A class that represents a {@link TalonFX}
  */
 public class TalonFXIO extends MotorIO {
+    // Phoenix resends requests at this rate unless they're set to 0 Hz, which only sends them once
+    private static final double requestUpdateHz = 100;
+
     protected final TalonFX[] motors;
+    private final TalonSignals[] signals;
+    private final TalonConfigurator<TalonFX, TalonFXConfiguration> configurator;
+    private VoltageOut voltageRequest;
     private PositionVoltage positionRequest;
     private VelocityVoltage velocityRequest;
     private MotionMagicVoltage profiledPositionRequest;
     private NeutralOut idleRequest;
-    protected TalonFXConfiguration config;
 
     /**
      * Constructs a {@link TalonFXIO}
@@ -45,13 +57,45 @@ public class TalonFXIO extends MotorIO {
         motors[0] = new TalonFX(leaderID, canbus);
         for (int i = 1; i <= followers.length; i++) {
             motors[i] = new TalonFX(followers[i - 1].getFirst(), canbus);
-            StatusCode status = StatusCode.StatusCodeNotInitialized;
-            for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
-                status = motors[i].getConfigurator().apply(config);
-            }
             motors[i].setControl(new Follower(leaderID, followers[i - 1].getSecond()));
         }
-        reconfigure(config);
+        signals = new TalonSignals[motors.length];
+        for (int i = 0; i < motors.length; i++) {
+            signals[i] = new TalonSignals(motors[i], canbus);
+        }
+        configurator = new TalonConfigurator<>(motors, "TalonFX", canbus) {
+            @Override
+            TalonFXConfiguration create() {
+                return new TalonFXConfiguration();
+            }
+
+            @Override
+            StatusCode apply(TalonFX fx, TalonFXConfiguration config) {
+                return fx.getConfigurator().apply(config);
+            }
+
+            @Override
+            StatusCode applySoftLimits(TalonFX fx, SoftwareLimitSwitchConfigs softLimits) {
+                return fx.getConfigurator().apply(softLimits);
+            }
+
+            @Override
+            StatusCode refresh(TalonFX fx, TalonFXConfiguration config) {
+                return fx.getConfigurator().refresh(config);
+            }
+
+            @Override
+            StatusCode setPosition(TalonFX fx, Angle position) {
+                return fx.setPosition(position);
+            }
+
+            @Override
+            SoftwareLimitSwitchConfigs getSoftLimits(TalonFXConfiguration config) {
+                return config.SoftwareLimitSwitch;
+            }
+        };
+        configurator.configureAtBoot(config, canbus);
+        voltageRequest = new VoltageOut(0);
         positionRequest = new PositionVoltage(0);
         velocityRequest = new VelocityVoltage(0);
         profiledPositionRequest = new MotionMagicVoltage(0);
@@ -60,37 +104,64 @@ public class TalonFXIO extends MotorIO {
 
     /**
      * Applies the given config to the talon fx. Note that this is done asynchronously,
-     * so code after this can't assume the config has been applied
+     * so code after this can't assume the config has been applied, and a config that's
+     * replaced before it's applied is skipped
      * @param config The config to apply
      */
     public void reconfigure(TalonFXConfiguration config) {
-        this.config = config;
-        Robot.submitBlockingCall(() -> {
-            for (TalonFX fx: motors) {
-                StatusCode status = StatusCode.StatusCodeNotInitialized;
-                for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
-                    status = fx.getConfigurator().apply(config);
-                }
+        configurator.reconfigure(config);
+    }
+
+    /**
+     * @return A copy of the latest config given to the talons, which shouldn't be changed
+     */
+    protected TalonFXConfiguration getConfig() {
+        return configurator.getConfig();
+    }
+
+    /**
+     * Sets how often each signal of the leader and of the followers is sent, then optimizes
+     * bus utilization so every other signal of the talons is turned off. Signals a profile
+     * turns off are no longer refreshed, so their outputs keep their last values. Note that
+     * this is done asynchronously, like {@link #reconfigure}
+     * @param leader The profile for the leader
+     * @param follower The profile for every follower
+     */
+    public void setSignalProfiles(TalonSignalProfile leader, TalonSignalProfile follower) {
+        signals[0].setProfile(leader, signals.length > 1);
+        for (int i = 1; i < signals.length; i++) {
+            signals[i].setProfile(follower, false);
+        }
+        Robot.submitBlockingCall(Priority.BACKGROUND, () -> {
+            for (TalonSignals talonSignals : signals) {
+                talonSignals.applyProfile();
             }
         });
     }
 
+    @Override
+    public boolean supportsHighRateSampling() {
+        return true;
+    }
+
+    @Override
+    protected MotorSampler.Source createSampleSource(double frequencyHz) {
+        // Only the leader is sampled, as followers share its position and velocity
+        return signals[0].createSampleSource(frequencyHz);
+    }
+
     @Override
     protected void updateOutputs(MotorOutputs[] outputs) {
+        // The signals are refreshed for every talon at once by the StatusSignalRegistry
+        double now = Timer.getFPGATimestamp();
         for (int i = 0; i < outputs.length; i++) {
-            outputs[i].position = motors[i].getPosition().getValue();
-            outputs[i].velocity = motors[i].getVelocity().getValue();
-            outputs[i].statorVoltage = motors[i].getMotorVoltage().getValue();
-            outputs[i].supplyVoltage = motors[i].getSupplyVoltage().getValue();
-            outputs[i].statorCurrent = motors[i].getStatorCurrent().getValue();
-            outputs[i].supplyCurrent = motors[i].getSupplyCurrent().getValue();
-            outputs[i].temperature = motors[i].getDeviceTemp().getValue();
+            signals[i].read(outputs[i], now);
         }
     }
 
     @Override
     protected void setVoltage(Voltage voltage) {
-        motors[0].setVoltage(voltage.in(Volts));
+        motors[0].setControl(voltageRequest.withOutput(voltage));
     }
 
     @Override
@@ -118,22 +189,23 @@ public class TalonFXIO extends MotorIO {
         motors[0].setControl(idleRequest);
     }
 
+    @Override
+    protected void setSynchronizedControl(boolean synchronizedControl) {
+        double updateHz = synchronizedControl ? 0 : requestUpdateHz;
+        voltageRequest.UpdateFreqHz = updateHz;
+        positionRequest.UpdateFreqHz = updateHz;
+        velocityRequest.UpdateFreqHz = updateHz;
+        profiledPositionRequest.UpdateFreqHz = updateHz;
+        idleRequest.UpdateFreqHz = updateHz;
+    }
+
     @Override
     public void useSoftLimits(boolean use) {
-        config.SoftwareLimitSwitch.ForwardSoftLimitEnable = use;
-        config.SoftwareLimitSwitch.ReverseSoftLimitEnable = use;
-        reconfigure(config);
+        configurator.useSoftLimits(use);
     }
 
     @Override
-    public void resetPosition(Angle position) {
-        Robot.submitBlockingCall(() -> {
-            for (TalonFX fx: motors) {
-                StatusCode status = StatusCode.StatusCodeNotInitialized;
-                for (int j = 0; j < 5 && status != StatusCode.OK; j++) {
-                    fx.setPosition(position);
-                }
-            }
-        });
+    public CompletableFuture<Void> resetPosition(Angle position) {
+        return configurator.resetPosition(position);
     }
 }
@@ -32,8 +32,8 @@ public class TalonFXSIOSim extends TalonFXSIO {
         sim.update();
         for (TalonFXS motor : motors) {
             TalonFXSSimState simState = motor.getSimState();
-            simState.setRawRotorPosition(sim.getPosition().times(config.ExternalFeedback.SensorToMechanismRatio));
-            simState.setRotorVelocity(sim.getVelocity().times(config.ExternalFeedback.SensorToMechanismRatio));
+            simState.setRawRotorPosition(sim.getPosition().times(getConfig().ExternalFeedback.SensorToMechanismRatio));
+            simState.setRotorVelocity(sim.getVelocity().times(getConfig().ExternalFeedback.SensorToMechanismRatio));
         }
         super.periodic();
     }
@@ -0,0 +1,65 @@
+package frc.lib.io.motor.ctre;
+
+import frc.lib.io.motor.MotorOutputs;
+
+/**
+ * How often each signal read into a talon's {@link MotorOutputs} is sent over CAN, in hertz.
+ * <p>
+ * A frequency of 0 turns the signal off, and it's no longer refreshed each loop, so
+ * its output keeps the last value that was received. Phoenix raises any other
+ * frequency to at least 4 Hz.
+ * @see TalonFXIO#setSignalProfiles(TalonSignalProfile, TalonSignalProfile)
+ * @see TalonFXSIO#setSignalProfiles(TalonSignalProfile, TalonSignalProfile)
+ */
+public final class TalonSignalProfile {
+    public double positionHz;
+    public double velocityHz;
+    public double statorVoltageHz;
+    public double supplyVoltageHz;
+    public double statorCurrentHz;
+    public double supplyCurrentHz;
+    public double temperatureHz;
+
+    /**
+     * Creates a profile with every signal turned off
+     */
+    public TalonSignalProfile() {}
+
+    /**
+     * @return A profile for a leader, with the signals used for control and stall detection
+     * every loop and the slow changing ones at the minimum rate
+     */
+    public static TalonSignalProfile leader() {
+        TalonSignalProfile profile = new TalonSignalProfile();
+        profile.positionHz = 50;
+        profile.velocityHz = 50;
+        profile.statorVoltageHz = 50;
+        profile.supplyVoltageHz = 4;
+        profile.statorCurrentHz = 50;
+        profile.supplyCurrentHz = 10;
+        profile.temperatureHz = 4;
+        return profile;
+    }
+
+    /**
+     * @return A profile for a follower, which only keeps the signals that show whether
+     * it's healthy, as its position and velocity are the leader's
+     */
+    public static TalonSignalProfile follower() {
+        TalonSignalProfile profile = new TalonSignalProfile();
+        profile.supplyVoltageHz = 4;
+        profile.statorCurrentHz = 10;
+        profile.supplyCurrentHz = 10;
+        profile.temperatureHz = 4;
+        return profile;
+    }
+
+    /**
+     * @return The frequencies in the order of {@link TalonSignals#getAll()}
+     */
+    double[] getFrequencies() {
+        return new double[] {
+            positionHz, velocityHz, statorVoltageHz, supplyVoltageHz, statorCurrentHz, supplyCurrentHz, temperatureHz
+        };
+    }
+}
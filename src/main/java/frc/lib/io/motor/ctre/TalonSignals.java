@@ -0,0 +1,199 @@
+package frc.lib.io.motor.ctre;
+
+import static edu.wpi.first.units.Units.Rotations;
+import static edu.wpi.first.units.Units.RotationsPerSecond;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.traits.CommonTalon;
+
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
+import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.Temperature;
+import edu.wpi.first.units.measure.Voltage;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.io.motor.MotorOutputs;
+import frc.lib.io.motor.MotorSampler;
+
+/**
+ * The signals read from a talon every loop to fill its {@link MotorOutputs}.
+ * <p>
+ * The signals are registered with the {@link StatusSignalRegistry} when this is
+ * constructed, so reading them never refreshes them. Once a {@link TalonSignalProfile}
+ * is set, only the signals it turns on stay registered.
+ */
+class TalonSignals {
+    // Followers are driven by the leader's duty cycle, motor voltage and torque current,
+    // so those have to stay on for a leader with followers
+    private static final double followedHz = 100;
+
+    private final ParentDevice device;
+    private final String canbus;
+    private final BaseStatusSignal[] followedSignals;
+
+    final StatusSignal<Angle> position;
+    final StatusSignal<AngularVelocity> velocity;
+    final StatusSignal<Voltage> statorVoltage;
+    final StatusSignal<Voltage> supplyVoltage;
+    final StatusSignal<Current> statorCurrent;
+    final StatusSignal<Current> supplyCurrent;
+    final StatusSignal<Temperature> temperature;
+
+    private BaseStatusSignal[] registered;
+    private double[] frequencies;
+    private boolean followed;
+    private volatile double sampledHz = 0;
+
+    /**
+     * Gets the signals of a talon and registers them
+     * @param talon The talon to get the signals of
+     * @param canbus The CAN bus the talon is on
+     */
+    <T extends ParentDevice & CommonTalon> TalonSignals(T talon, String canbus) {
+        this.device = talon;
+        this.canbus = canbus;
+        position = talon.getPosition();
+        velocity = talon.getVelocity();
+        statorVoltage = talon.getMotorVoltage();
+        supplyVoltage = talon.getSupplyVoltage();
+        statorCurrent = talon.getStatorCurrent();
+        supplyCurrent = talon.getSupplyCurrent();
+        temperature = talon.getDeviceTemp();
+        followedSignals = new BaseStatusSignal[] {talon.getDutyCycle(), talon.getTorqueCurrent()};
+        registered = getAll();
+        StatusSignalRegistry.register(canbus, registered);
+    }
+
+    /**
+     * @return Every signal, for calls that take a group of signals
+     */
+    BaseStatusSignal[] getAll() {
+        return new BaseStatusSignal[] {
+            position, velocity, statorVoltage, supplyVoltage, statorCurrent, supplyCurrent, temperature
+        };
+    }
+
+    /**
+     * Sets the profile the signals should be sent at, and only keeps the signals that are
+     * turned on registered. The profile is sent to the talon by {@link #applyProfile()}.
+     * @param profile The frequencies of the signals
+     * @param followed Whether the talon is a leader with followers
+     */
+    void setProfile(TalonSignalProfile profile, boolean followed) {
+        this.followed = followed;
+        BaseStatusSignal[] all = getAll();
+        frequencies = profile.getFrequencies();
+        for (int i = 0; i < all.length; i++) {
+            if (followed && all[i] == statorVoltage) {
+                frequencies[i] = Math.max(frequencies[i], followedHz);
+            }
+        }
+        int count = 0;
+        for (double frequency : frequencies) {
+            if (frequency > 0) {
+                count++;
+            }
+        }
+        BaseStatusSignal[] enabled = new BaseStatusSignal[count];
+        count = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (frequencies[i] > 0) {
+                enabled[count++] = all[i];
+            }
+        }
+        StatusSignalRegistry.unregister(canbus, registered);
+        StatusSignalRegistry.register(canbus, enabled);
+        registered = enabled;
+    }
+
+    /**
+     * Sends the profile to the talon, then optimizes its bus utilization so that every
+     * signal the profile doesn't set is turned off.
+     * <p>
+     * Note: This blocks, so it should be submitted with {@link frc.robot.Robot#submitBlockingCall(Runnable)}
+     */
+    void applyProfile() {
+        if (frequencies == null) {
+            return;
+        }
+        BaseStatusSignal[] all = getAll();
+        StatusCode status = StatusCode.StatusCodeNotInitialized;
+        for (int j = 0; j < 5 && !status.isOK(); j++) {
+            status = StatusCode.OK;
+            if (followed) {
+                status = firstError(status, BaseStatusSignal.setUpdateFrequencyForAll(followedHz, followedSignals));
+            }
+            for (int i = 0; i < all.length; i++) {
+                double frequency = frequencies[i];
+                // A high rate sampler needs its signals to keep coming at its rate
+                if (all[i] == position || all[i] == velocity || all[i] == statorCurrent) {
+                    frequency = Math.max(frequency, sampledHz);
+                }
+                status = firstError(status, all[i].setUpdateFrequency(frequency));
+            }
+        }
+        device.optimizeBusUtilization();
+    }
+
+    /**
+     * Creates a source of samples for a {@link MotorSampler}, which waits on its own copies
+     * of the position, velocity and stator current signals so it never races the main loop
+     * @param frequencyHz The rate to sample at
+     * @return The source
+     */
+    MotorSampler.Source createSampleSource(double frequencyHz) {
+        sampledHz = frequencyHz;
+        StatusSignal<Angle> sampledPosition = position.clone();
+        StatusSignal<AngularVelocity> sampledVelocity = velocity.clone();
+        StatusSignal<Current> sampledStatorCurrent = statorCurrent.clone();
+        BaseStatusSignal[] sampled = {sampledPosition, sampledVelocity, sampledStatorCurrent};
+        // Waits up to two periods, so a single late frame isn't counted as a timeout
+        double timeoutSeconds = 2 / frequencyHz;
+        boolean[] configured = {false};
+        return values -> {
+            if (!configured[0]) {
+                // Set on the sampling thread, as it blocks
+                BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, sampled);
+                configured[0] = true;
+            }
+            StatusCode status = BaseStatusSignal.waitForAll(timeoutSeconds, sampled);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (!status.isOK()) {
+                return Double.NaN;
+            }
+            values[MotorSampler.Channel.POSITION.ordinal()] = Rotations.toBaseUnits(sampledPosition.getValueAsDouble());
+            values[MotorSampler.Channel.VELOCITY.ordinal()] = RotationsPerSecond.toBaseUnits(sampledVelocity.getValueAsDouble());
+            values[MotorSampler.Channel.STATOR_CURRENT.ordinal()] = sampledStatorCurrent.getValueAsDouble();
+            return Timer.getFPGATimestamp() - sampledPosition.getTimestamp().getLatency();
+        };
+    }
+
+    private static StatusCode firstError(StatusCode current, StatusCode next) {
+        return current.isOK() ? next : current;
+    }
+
+    /**
+     * Fills the outputs from the last refresh of the signals
+     * @param outputs The outputs to fill
+     * @param now The current FPGA time in seconds, which the signals' latency is taken from
+     */
+    void read(MotorOutputs outputs, double now) {
+        // Read as doubles, getValue() allocates a new measure every call
+        outputs.set(
+            Rotations.toBaseUnits(position.getValueAsDouble()),
+            RotationsPerSecond.toBaseUnits(velocity.getValueAsDouble()),
+            supplyVoltage.getValueAsDouble(),
+            statorVoltage.getValueAsDouble(),
+            statorCurrent.getValueAsDouble(),
+            supplyCurrent.getValueAsDouble(),
+            temperature.getValueAsDouble()
+        );
+        // Position is what latency compensation extrapolates, so its timestamp is the one kept
+        outputs.setTimestamp(now - position.getTimestamp().getLatency());
+    }
+}
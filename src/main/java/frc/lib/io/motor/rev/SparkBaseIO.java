@@ -1,6 +1,10 @@
 package frc.lib.io.motor.rev;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 import com.revrobotics.spark.SparkBase;
+import com.revrobotics.REVLibError;
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.spark.SparkClosedLoopController;
 import com.revrobotics.spark.SparkFlex;
@@ -8,6 +12,7 @@ import com.revrobotics.spark.SparkMax;
 import com.revrobotics.spark.SparkBase.PersistMode;
 import com.revrobotics.spark.SparkBase.ResetMode;
 import com.revrobotics.spark.SparkLowLevel.MotorType;
+import com.revrobotics.spark.config.SignalsConfig;
 import com.revrobotics.spark.config.SparkBaseConfig;
 import com.revrobotics.spark.config.SparkBaseConfigAccessor;
 import com.revrobotics.spark.config.SparkFlexConfig;
@@ -16,8 +21,13 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import edu.wpi.first.math.Pair;
 import edu.wpi.first.units.Units;
 import edu.wpi.first.units.measure.*;
+import edu.wpi.first.wpilibj.Timer;
 import frc.lib.io.motor.MotorIO;
 import frc.lib.io.motor.MotorOutputs;
+import frc.lib.util.BlockingCallExecutor.Priority;
+import frc.lib.util.ConfigFingerprints;
+import frc.lib.util.StartupConfiguration;
+import frc.robot.Robot;
 import static com.revrobotics.spark.SparkBase.ControlType.*;
 
 /**
@@ -46,6 +56,10 @@ public class SparkBaseIO extends MotorIO {
         public final SparkClosedLoopController controller;
         public final RelativeEncoder encoder;
         public final SparkBaseConfigAccessor accessor;
+        // The last value read of each signal, and how often and when it was last read
+        private final double[] values = new double[signalCount];
+        private final double[] periodsSeconds = new double[signalCount];
+        private final double[] lastReads = new double[signalCount];
 
         public Exploded(
                 int id, MotorType type, ControllerType sparkType) {
@@ -70,16 +84,64 @@ public class SparkBaseIO extends MotorIO {
 
             this.controller = motor.getClosedLoopController();
             this.encoder = motor.getEncoder();
+            Arrays.fill(lastReads, Double.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Sets how often each signal is read, to match how often it's sent
+         * @param profile The periods the signals are sent at
+         */
+        void setPeriods(SparkTelemetryProfile profile) {
+            int[] periods = profile.getPeriods();
+            for (int i = 0; i < signalCount; i++) {
+                periodsSeconds[i] = periods[i] > 0 ? periods[i] / 1000.0 : -1;
+            }
+        }
+
+        /**
+         * Checks whether a signal could have been sent again since it was last read,
+         * and marks it as read if so
+         * @param signal The signal to check
+         * @param now The current FPGA time in seconds
+         * @return Whether the signal should be read
+         */
+        boolean isDue(int signal, double now) {
+            double period = periodsSeconds[signal];
+            if (period < 0 || now - lastReads[signal] + readSlackSeconds < period) {
+                return false;
+            }
+            lastReads[signal] = now;
+            return true;
         }
     }
 
+    // The order of the signals, matching SparkTelemetryProfile#getPeriods()
+    private static final int positionSignal = 0;
+    private static final int velocitySignal = 1;
+    private static final int appliedOutputSignal = 2;
+    private static final int busVoltageSignal = 3;
+    private static final int outputCurrentSignal = 4;
+    private static final int motorTemperatureSignal = 5;
+    private static final int signalCount = 6;
+    // Loops don't line up with frames exactly, so a signal is read if its next frame is due within half a loop
+    private static final double readSlackSeconds = 0.01;
+
     protected final ControllerType type;
     protected final Exploded main;
     private final SparkBaseConfig config;
     protected final Exploded[] followers;
 
-    private boolean forwardLimitEnabled;
-    private boolean reverseLimitEnabled;
+    // Read from the spark once it's configured
+    private volatile boolean forwardLimitEnabled;
+    private volatile boolean reverseLimitEnabled;
+    // Completes once the sparks have their boot config, so nothing is written before it lands
+    private CompletableFuture<Void> configured;
+    // The latest config and soft limit state, which calls waiting on the boot config read
+    // when they run, as they run newest first
+    private volatile SparkBaseConfig pendingConfig;
+    private volatile boolean softLimitsUsed = true;
+    private volatile SparkBaseConfig leaderSignals;
+    private volatile SparkBaseConfig followerSignals;
 
     /**
      * Creates a sparkBaseIO
@@ -113,12 +175,17 @@ public class SparkBaseIO extends MotorIO {
         config.apply(mainConfig);
 
         main = new Exploded(mainMotor, type, this.type);
-        main.motor.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
-
-        forwardLimitEnabled = main.accessor.softLimit.getForwardSoftLimitEnabled();
-        reverseLimitEnabled = main.accessor.softLimit.getReverseSoftLimitEnabled();
+        // A copy is applied, as the config keeps changing after this
+        SparkBaseConfig bootConfig = createConfig();
+        bootConfig.apply(config);
+        CompletableFuture<Void> mainConfigured = configureAtBoot(main.motor, bootConfig).thenRun(() -> {
+            forwardLimitEnabled = main.accessor.softLimit.getForwardSoftLimitEnabled();
+            reverseLimitEnabled = main.accessor.softLimit.getReverseSoftLimitEnabled();
+        });
 
         this.followers = new Exploded[followers.length];
+        CompletableFuture<?>[] allConfigured = new CompletableFuture<?>[followers.length + 1];
+        allConfigured[0] = mainConfigured;
 
         for (int i = 0; i < followers.length; i++) {
             Pair<Integer, Boolean> follower = followers[i];
@@ -136,12 +203,38 @@ public class SparkBaseIO extends MotorIO {
             config.apply(mainConfig);
             config.follow(mainMotor, follower.getSecond());
 
-            this.followers[i].motor.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+            allConfigured[i + 1] = configureAtBoot(this.followers[i].motor, config);
         }
+        configured = CompletableFuture.allOf(allConfigured);
+    }
+
+    /**
+     * Configures a spark when the robot boots. A spark that was last given the same config,
+     * going by its {@link ConfigFingerprints}, already has it persisted, so it's only applied
+     * without persisting, in case the spark was swapped or reset, which doesn't wear out its flash.
+     * Sparks are configured with every other device by the {@link StartupConfiguration}
+     * @param motor The spark to configure
+     * @param config The config to apply
+     * @return A future that completes once the spark has been configured
+     */
+    private static CompletableFuture<Void> configureAtBoot(SparkBase motor, SparkBaseConfig config) {
+        String device = ConfigFingerprints.deviceName(motor.getClass().getSimpleName(), "rio", motor.getDeviceId());
+        String fingerprint = ConfigFingerprints.of(config.flatten());
+        boolean persisted = ConfigFingerprints.matches(device, fingerprint);
+        return StartupConfiguration.submit("rio", () -> {
+            PersistMode persist = persisted ? PersistMode.kNoPersistParameters : PersistMode.kPersistParameters;
+            if (motor.configure(config, ResetMode.kResetSafeParameters, persist) != REVLibError.kOk) {
+                throw new IllegalStateException("Failed to configure " + device);
+            }
+            if (!persisted) {
+                ConfigFingerprints.record(device, fingerprint);
+            }
+        });
     }
 
     /**
-     * Applies the given config to the Spark
+     * Applies the given config to the Spark. Note that this is done asynchronously, once the
+     * boot config has landed, and a config that's replaced before it's applied is skipped
      * @param config The config to apply
      */
     public void reconfigure(SparkBaseConfig config) {
@@ -156,39 +249,142 @@ public class SparkBaseIO extends MotorIO {
             this.config.apply(config);
         }
 
-        main.motor.configure(this.config, ResetMode.kResetSafeParameters, PersistMode.kNoPersistParameters);
-
-        forwardLimitEnabled = main.accessor.softLimit.getForwardSoftLimitEnabled();
-        reverseLimitEnabled = main.accessor.softLimit.getReverseSoftLimitEnabled();
+        // A copy is applied, as the config keeps changing on the main thread
+        SparkBaseConfig latest = createConfig();
+        latest.apply(this.config);
+        pendingConfig = latest;
+        // Only the latest config is applied if several are waiting
+        configured.thenRun(() -> Robot.submitCoalescedCall(Priority.NORMAL, this, () -> {
+            main.motor.configure(pendingConfig, ResetMode.kResetSafeParameters, PersistMode.kNoPersistParameters);
+            forwardLimitEnabled = main.accessor.softLimit.getForwardSoftLimitEnabled();
+            reverseLimitEnabled = main.accessor.softLimit.getReverseSoftLimitEnabled();
+        }));
     }
 
     /**
-     * helper method for loading the data from a motor into the outputs
+     * helper method for loading the data from a motor into the outputs. Signals that
+     * can't have been sent again since they were last read keep their last value
      * 
      * @param controller
      * @param outputs
+     * @param now The current FPGA time in seconds, used as the sample time as sparks don't timestamp their frames
      */
-    private static void loadOutputs(Exploded controller, MotorOutputs outputs) {
-        double output = controller.motor.getAppliedOutput();
+    private static void loadOutputs(Exploded controller, MotorOutputs outputs, double now) {
+        double[] values = controller.values;
+        if (controller.isDue(positionSignal, now)) {
+            values[positionSignal] = Units.Rotations.toBaseUnits(controller.encoder.getPosition());
+        }
+        if (controller.isDue(velocitySignal, now)) {
+            values[velocitySignal] = Units.RPM.toBaseUnits(controller.encoder.getVelocity());
+        }
+        if (controller.isDue(appliedOutputSignal, now)) {
+            values[appliedOutputSignal] = controller.motor.getAppliedOutput();
+        }
+        if (controller.isDue(busVoltageSignal, now)) {
+            values[busVoltageSignal] = controller.motor.getBusVoltage();
+        }
+        if (controller.isDue(outputCurrentSignal, now)) {
+            values[outputCurrentSignal] = controller.motor.getOutputCurrent();
+        }
+        if (controller.isDue(motorTemperatureSignal, now)) {
+            values[motorTemperatureSignal] = controller.motor.getMotorTemperature();
+        }
 
-        outputs.statorCurrent = Units.Amps.of(controller.motor.getOutputCurrent());
-        outputs.supplyCurrent = outputs.statorCurrent.times(output);
+        double output = values[appliedOutputSignal];
+        double statorAmps = values[outputCurrentSignal];
+        double supplyVolts = values[busVoltageSignal];
+
+        outputs.set(
+            values[positionSignal],
+            values[velocitySignal],
+            supplyVolts,
+            supplyVolts * output,
+            statorAmps,
+            statorAmps * output,
+            values[motorTemperatureSignal]
+        );
+        // Position is what latency compensation extrapolates, so the time it was read is the one kept
+        double positionRead = controller.lastReads[positionSignal];
+        outputs.setTimestamp(Double.isInfinite(positionRead) ? now : positionRead);
+    }
 
-        outputs.supplyVoltage = Units.Volts.of(controller.motor.getBusVoltage());
-        outputs.statorVoltage = outputs.supplyVoltage.times(output);
+    /**
+     * Sets how often each signal of the leader and of the followers is sent, and only reads
+     * each signal as often as it's sent. Signals a profile turns off are no longer read,
+     * so their outputs keep their last values. Note that this is done asynchronously
+     * @param leader The profile for the leader
+     * @param follower The profile for every follower
+     */
+    public void setTelemetryProfiles(SparkTelemetryProfile leader, SparkTelemetryProfile follower) {
+        // Kept in the config so reconfiguring doesn't reset the periods
+        applyProfile(config.signals, leader);
+        main.setPeriods(leader);
+        SparkBaseConfig newLeaderSignals = createConfig();
+        applyProfile(newLeaderSignals.signals, leader);
+        SparkBaseConfig newFollowerSignals = createConfig();
+        applyProfile(newFollowerSignals.signals, follower);
+        leaderSignals = newLeaderSignals;
+        followerSignals = newFollowerSignals;
+        for (Exploded exploded : followers) {
+            exploded.setPeriods(follower);
+        }
+        // Written after the boot config, which would otherwise race it, and only the latest profiles are written
+        configured.thenRun(() -> Robot.submitCoalescedCall(Priority.BACKGROUND, config.signals, () -> {
+            // Only the signals are set, so nothing else is reset
+            main.motor.configure(leaderSignals, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+            SparkBaseConfig latestFollowerSignals = followerSignals;
+            for (Exploded exploded : followers) {
+                exploded.motor.configure(latestFollowerSignals, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+            }
+        }));
+    }
 
-        outputs.position = Units.Rotations.of(controller.encoder.getPosition());
-        outputs.velocity = Units.RPM.of(controller.encoder.getVelocity());
+    /**
+     * @return An empty config for the type of spark
+     */
+    private SparkBaseConfig createConfig() {
+        return type == ControllerType.CANSparkMax ? new SparkMaxConfig() : new SparkFlexConfig();
+    }
 
-        outputs.temperature = Units.Celsius.of(controller.motor.getMotorTemperature());
+    /**
+     * Writes a profile into a config's signals. Signals that are turned off aren't kept on,
+     * so the spark can drop their frames as they're never read
+     */
+    private static void applyProfile(SignalsConfig signals, SparkTelemetryProfile profile) {
+        int[] periods = profile.getPeriods();
+        if (periods[positionSignal] > 0) {
+            signals.primaryEncoderPositionPeriodMs(periods[positionSignal]);
+        }
+        if (periods[velocitySignal] > 0) {
+            signals.primaryEncoderVelocityPeriodMs(periods[velocitySignal]);
+        }
+        if (periods[appliedOutputSignal] > 0) {
+            signals.appliedOutputPeriodMs(periods[appliedOutputSignal]);
+        }
+        if (periods[busVoltageSignal] > 0) {
+            signals.busVoltagePeriodMs(periods[busVoltageSignal]);
+        }
+        if (periods[outputCurrentSignal] > 0) {
+            signals.outputCurrentPeriodMs(periods[outputCurrentSignal]);
+        }
+        if (periods[motorTemperatureSignal] > 0) {
+            signals.motorTemperaturePeriodMs(periods[motorTemperatureSignal]);
+        }
+        signals.primaryEncoderPositionAlwaysOn(periods[positionSignal] > 0)
+            .primaryEncoderVelocityAlwaysOn(periods[velocitySignal] > 0)
+            .appliedOutputAlwaysOn(periods[appliedOutputSignal] > 0)
+            .busVoltageAlwaysOn(periods[busVoltageSignal] > 0)
+            .outputCurrentAlwaysOn(periods[outputCurrentSignal] > 0)
+            .motorTemperatureAlwaysOn(periods[motorTemperatureSignal] > 0);
     }
 
     @Override
     protected void updateOutputs(MotorOutputs[] outputs) {
-        loadOutputs(main, outputs[0]);
+        double now = Timer.getFPGATimestamp();
+        loadOutputs(main, outputs[0], now);
 
         for (int i = 0; i < followers.length; i++) {
-            loadOutputs(followers[i], outputs[i + 1]);
+            loadOutputs(followers[i], outputs[i + 1], now);
         }
     }
 
@@ -228,12 +424,25 @@ public class SparkBaseIO extends MotorIO {
                 .forwardSoftLimitEnabled(use && forwardLimitEnabled)
                 .reverseSoftLimitEnabled(use && reverseLimitEnabled);
 
-        main.motor.configure(this.config, ResetMode.kResetSafeParameters, PersistMode.kNoPersistParameters);
+        softLimitsUsed = use;
+        // Only the soft limits are written, so toggling them doesn't rewrite the whole config.
+        // They're built when the write runs, as the limits are only known once the boot config
+        // has landed, and so an older toggle can't land last
+        configured.thenRun(() -> Robot.submitCoalescedCall(Priority.CRITICAL, this.config.softLimit, () -> {
+            boolean used = softLimitsUsed;
+            SparkBaseConfig softLimits = createConfig();
+            softLimits.softLimit
+                    .forwardSoftLimitEnabled(used && forwardLimitEnabled)
+                    .reverseSoftLimitEnabled(used && reverseLimitEnabled);
+            main.motor.configure(softLimits, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+        }));
     }
 
     @Override
-    public void resetPosition(Angle position) {
-        main.encoder.setPosition(position.in(Units.Rotations));
+    public CompletableFuture<Void> resetPosition(Angle position) {
+        // Setting a spark's encoder position doesn't wait for a response, so it's done as soon
+        // as the boot config, which sets the conversion factor the position is in, has landed
+        return configured.thenRun(() -> main.encoder.setPosition(position.in(Units.Rotations)));
     }
 
     /**
@@ -1,5 +1,7 @@
 package frc.lib.io.motor.rev;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.revrobotics.spark.SparkLowLevel.MotorType;
 import com.revrobotics.spark.config.SparkBaseConfig;
 
@@ -43,7 +45,7 @@ public class SparkBaseSimIO extends SparkBaseIO {
         super.periodic();
         MotorOutputs outputs = getOutputs()[0];
         
-        simObject.setVoltage(outputs.statorVoltage);
+        simObject.setVoltage(outputs.statorVoltage());
         updateSimMotor();
     }
 
@@ -61,9 +63,9 @@ public class SparkBaseSimIO extends SparkBaseIO {
     }
 
     @Override
-    public void resetPosition(Angle position) {
+    public CompletableFuture<Void> resetPosition(Angle position) {
         simMotor.setPosition(position.in(Rotations));
-        super.resetPosition(position);
+        return super.resetPosition(position);
     }
 }
 
@@ -0,0 +1,61 @@
+package frc.lib.io.motor.rev;
+
+import frc.lib.io.motor.MotorOutputs;
+
+/**
+ * How often each signal read into a spark's {@link MotorOutputs} is sent over CAN, in milliseconds.
+ * <p>
+ * A period of 0 turns the signal off, so the frame carrying it can be dropped if nothing
+ * else needs it, and its output keeps the last value that was read.
+ * @see SparkBaseIO#setTelemetryProfiles(SparkTelemetryProfile, SparkTelemetryProfile)
+ */
+public final class SparkTelemetryProfile {
+    public int positionPeriodMs;
+    public int velocityPeriodMs;
+    public int appliedOutputPeriodMs;
+    public int busVoltagePeriodMs;
+    public int outputCurrentPeriodMs;
+    public int motorTemperaturePeriodMs;
+
+    /**
+     * Creates a profile with every signal turned off
+     */
+    public SparkTelemetryProfile() {}
+
+    /**
+     * @return A profile for a leader, with the signals used for control every loop and
+     * the slow changing ones rarely. Applied output stays fast, as followers follow it
+     */
+    public static SparkTelemetryProfile leader() {
+        SparkTelemetryProfile profile = new SparkTelemetryProfile();
+        profile.positionPeriodMs = 20;
+        profile.velocityPeriodMs = 20;
+        profile.appliedOutputPeriodMs = 10;
+        profile.busVoltagePeriodMs = 250;
+        profile.outputCurrentPeriodMs = 20;
+        profile.motorTemperaturePeriodMs = 500;
+        return profile;
+    }
+
+    /**
+     * @return A profile for a follower, which only keeps the signals that show whether
+     * it's healthy, as its position and velocity are the leader's
+     */
+    public static SparkTelemetryProfile follower() {
+        SparkTelemetryProfile profile = new SparkTelemetryProfile();
+        profile.appliedOutputPeriodMs = 100;
+        profile.busVoltagePeriodMs = 250;
+        profile.outputCurrentPeriodMs = 100;
+        profile.motorTemperaturePeriodMs = 500;
+        return profile;
+    }
+
+    /**
+     * @return The periods in the order of the signals read by {@link SparkBaseIO}
+     */
+    int[] getPeriods() {
+        return new int[] {
+            positionPeriodMs, velocityPeriodMs, appliedOutputPeriodMs, busVoltagePeriodMs, outputCurrentPeriodMs, motorTemperaturePeriodMs
+        };
+    }
+}
@@ -1,9 +1,15 @@
 package frc.lib.io.motor.setpoints;
 
+import static edu.wpi.first.units.Units.*;
+
 import edu.wpi.first.units.*;
 
 /**
  * Base class for a generic setpoint
+ * <p>
+ * Setpoints are immutable wrappers around a measure, and are adapted into a
+ * {@link MotorSetpoint} when applied. Code that changes its setpoint every loop can
+ * use a {@link MotorSetpoint} directly to avoid allocating
  * @param <M> The type of measure of the setpoint
  */
 public abstract class BaseSetpoint<M extends Measure<? extends Unit>> {
@@ -24,6 +30,37 @@ public abstract class BaseSetpoint<M extends Measure<? extends Unit>> {
         return value;
     }
 
+    /**
+     * @return The type of the setpoint
+     */
+    public abstract SetpointType getType();
+
+    /**
+     * Writes this setpoint's type and value into a motor setpoint
+     * @param setpoint The motor setpoint to write into
+     * @return The motor setpoint, for chaining
+     */
+    public final MotorSetpoint writeTo(MotorSetpoint setpoint) {
+        return setpoint.set(getType(), value.baseUnitMagnitude());
+    }
+
+    /**
+     * Creates the setpoint class matching a motor setpoint
+     * @param setpoint The motor setpoint to copy
+     * @return A new setpoint with the same type and value
+     */
+    public static BaseSetpoint<?> of(MotorSetpoint setpoint) {
+        double value = setpoint.getValue();
+        return switch (setpoint.getType()) {
+            case IDLE -> new IdleSetpoint();
+            case VOLTAGE -> new VoltageSetpoint(Volts.of(value));
+            case CURRENT -> new CurrentSetpoint(Amps.of(value));
+            case POSITION -> new PositionSetpoint(Radians.of(value));
+            case PROFILED_POSITION -> new ProfiledPositionSetpoint(Radians.of(value));
+            case VELOCITY -> new VelocitySetpoint(RadiansPerSecond.of(value));
+        };
+    }
+
     /**
      * @return The name of the setpoint type, useful for logging the setpoint type
      */
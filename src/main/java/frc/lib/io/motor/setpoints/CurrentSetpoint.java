@@ -13,4 +13,9 @@ public class CurrentSetpoint extends BaseSetpoint<Current> {
     public CurrentSetpoint(Current current) {
         super(current);
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.CURRENT;
+    }
 }
@@ -13,4 +13,9 @@ public class IdleSetpoint extends BaseSetpoint<Dimensionless> {
     public IdleSetpoint() {
         super(Units.Value.of(0));
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.IDLE;
+    }
 }
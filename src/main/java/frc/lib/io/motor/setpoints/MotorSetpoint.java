@@ -0,0 +1,67 @@
+package frc.lib.io.motor.setpoints;
+
+/**
+ * A mutable setpoint, made of a {@link SetpointType} and a value in the type's base unit.
+ * <p>
+ * Unlike the {@link BaseSetpoint} classes, a motor setpoint can be kept and updated by
+ * its owner every loop, as {@link frc.lib.io.motor.MotorIO#applySetpoint(MotorSetpoint)}
+ * copies its type and value rather than holding on to it
+ */
+public final class MotorSetpoint {
+    private SetpointType type = SetpointType.IDLE;
+    private double value = 0;
+
+    /**
+     * Creates an idle setpoint
+     */
+    public MotorSetpoint() {}
+
+    /**
+     * Creates a setpoint with the given type and value
+     * @param type The type of the setpoint
+     * @param value The value of the setpoint, in the type's base unit
+     */
+    public MotorSetpoint(SetpointType type, double value) {
+        set(type, value);
+    }
+
+    /**
+     * Updates this setpoint
+     * @param type The new type of the setpoint
+     * @param value The new value of the setpoint, in the type's base unit
+     * @return This setpoint, for chaining
+     */
+    public MotorSetpoint set(SetpointType type, double value) {
+        this.type = type;
+        this.value = type == SetpointType.IDLE ? 0 : value;
+        return this;
+    }
+
+    /**
+     * Copies another setpoint's type and value into this one
+     * @param other The setpoint to copy
+     * @return This setpoint, for chaining
+     */
+    public MotorSetpoint set(MotorSetpoint other) {
+        return set(other.type, other.value);
+    }
+
+    /**
+     * @return The type of the setpoint
+     */
+    public SetpointType getType() {
+        return type;
+    }
+
+    /**
+     * @return The value of the setpoint, in the type's base unit
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "MotorSetpoint(" + type + ", " + value + " " + type.baseUnit.name() + ")";
+    }
+}
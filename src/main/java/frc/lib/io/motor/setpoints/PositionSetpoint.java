@@ -13,4 +13,9 @@ public class PositionSetpoint extends BaseSetpoint<Angle> {
     public PositionSetpoint(Angle position) {
         super(position);
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.POSITION;
+    }
 }
@@ -13,4 +13,9 @@ public class ProfiledPositionSetpoint extends PositionSetpoint {
     public ProfiledPositionSetpoint(Angle position) {
         super(position);
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.PROFILED_POSITION;
+    }
 }
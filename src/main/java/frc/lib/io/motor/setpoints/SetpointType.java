@@ -0,0 +1,34 @@
+package frc.lib.io.motor.setpoints;
+
+import static edu.wpi.first.units.Units.*;
+
+import edu.wpi.first.units.Unit;
+
+/**
+ * The ways a motor can be controlled, along with the base unit each type's value is in.
+ * <p>
+ * The order of the types matches {@link frc.lib.io.motor.LoggedSetpointStruct#typeNames},
+ * so a type's ordinal can be logged directly
+ */
+public enum SetpointType {
+    IDLE(Value),
+    VOLTAGE(Volts),
+    CURRENT(Amps),
+    POSITION(Radians),
+    PROFILED_POSITION(Radians),
+    VELOCITY(RadiansPerSecond);
+
+    /** The unit values of this type are in */
+    public final Unit baseUnit;
+
+    private SetpointType(Unit baseUnit) {
+        this.baseUnit = baseUnit;
+    }
+
+    /**
+     * @return Whether this type targets a position, with or without a motion profile
+     */
+    public boolean isPosition() {
+        return this == POSITION || this == PROFILED_POSITION;
+    }
+}
@@ -13,4 +13,9 @@ public class VelocitySetpoint extends BaseSetpoint<AngularVelocity> {
     public VelocitySetpoint(AngularVelocity velocity) {
         super(velocity);
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.VELOCITY;
+    }
 }
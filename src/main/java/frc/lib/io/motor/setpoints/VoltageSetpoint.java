@@ -13,4 +13,9 @@ public class VoltageSetpoint extends BaseSetpoint<Voltage> {
     public VoltageSetpoint(Voltage voltage) {
         super(voltage);
     }
+
+    @Override
+    public SetpointType getType() {
+        return SetpointType.VOLTAGE;
+    }
 }
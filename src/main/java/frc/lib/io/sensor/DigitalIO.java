@@ -2,6 +2,7 @@ package frc.lib.io.sensor;
 
 import edu.wpi.first.math.filter.Debouncer;
 import edu.wpi.first.math.filter.Debouncer.DebounceType;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 
@@ -29,6 +30,16 @@ public abstract class DigitalIO implements Loggable {
          */
         @Override
         public void log(String path) {
+            log(LogPath.of(path));
+        }
+
+        /**
+         * Logs the digital sensor outputs to the specified path handle.
+         * 
+         * @param path The logging path handle for this data
+         */
+        @Override
+        public void log(LogPath path) {
             Logger.log(path, "Raw Ouput", raw);
             Logger.log(path, "Debounced Output", debounced);
         }
@@ -86,6 +97,16 @@ public abstract class DigitalIO implements Loggable {
      */
     @Override
     public void log(String path) {
-        Logger.log(path, outputs);
+        log(LogPath.of(path));
+    }
+
+    /**
+     * Logs all sensor data to the specified path handle.
+     * 
+     * @param path The logging path handle for this sensor
+     */
+    @Override
+    public void log(LogPath path) {
+        outputs.log(path);
     }
 }
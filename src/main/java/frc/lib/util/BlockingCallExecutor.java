@@ -0,0 +1,236 @@
+package frc.lib.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Loggable;
+import frc.lib.util.logging.Logger;
+
+/**
+ * Runs blocking calls, like config writes to motor controllers, on a single thread
+ * so they never hold up the main loop.
+ * <p>
+ * Calls are run in order of their {@link Priority}, and in the order they were submitted
+ * within a priority, so a position reset isn't stuck behind a queue of cosmetic config
+ * writes. Every call returns a {@link CompletableFuture}, which completes once the call
+ * has run, or completes exceptionally with whatever the call threw.
+ */
+public final class BlockingCallExecutor implements Loggable {
+    /**
+     * How urgent a call is, calls with an earlier priority always run first
+     */
+    public enum Priority {
+        /** Calls the robot's safety depends on, like resetting a position or setting soft limits */
+        CRITICAL,
+        /** Config writes that change how the robot behaves */
+        NORMAL,
+        /** Calls that only affect telemetry, like signal frequencies */
+        BACKGROUND
+    }
+
+    private static final Priority[] priorities = Priority.values();
+
+    private final PriorityBlockingQueue<Call> queue = new PriorityBlockingQueue<>();
+    // The latest call for each key that hasn't been run yet, see submitCoalesced
+    private final Map<Object, CoalescedCall> pendingCoalescedCalls = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger coalescedCalls = new AtomicInteger();
+    private final AtomicInteger failedCalls = new AtomicInteger();
+    private final Histogram waitTimes = new Histogram();
+    private final Histogram executionTimes = new Histogram();
+    // Calls waiting to run in each priority, counted as they're queued and taken so logging doesn't walk the queue
+    private final AtomicIntegerArray queueDepths = new AtomicIntegerArray(priorities.length);
+    private int[] loggedQueueDepths = new int[priorities.length];
+
+    /**
+     * Creates an executor and starts its thread
+     * @param name The name of the thread
+     */
+    public BlockingCallExecutor(String name) {
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Submits a call to be run on the blocking calls thread
+     * @param priority How urgent the call is
+     * @param call The call
+     * @return A future that completes once the call has run
+     */
+    public CompletableFuture<Void> submit(Priority priority, Runnable call) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        enqueue(new Call(priority, sequence.getAndIncrement(), call, future));
+        return future;
+    }
+
+    /**
+     * Submits a call that replaces any call with the same key that hasn't run yet, so a
+     * burst of writes to the same device or config only applies the last one
+     * @param priority How urgent the call is, a replacement keeps the priority of the call it replaced
+     * @param key What the call writes to, usually a device or one of its config groups
+     * @param call The call, which should apply the latest state when it runs
+     * @return A future that completes once the latest call has run, which is shared with
+     * every call it replaced
+     */
+    public CompletableFuture<Void> submitCoalesced(Priority priority, Object key, Runnable call) {
+        boolean[] replaced = {false};
+        CoalescedCall coalesced = pendingCoalescedCalls.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new CoalescedCall(call);
+            }
+            existing.call = call;
+            replaced[0] = true;
+            return existing;
+        });
+        if (replaced[0]) {
+            coalescedCalls.incrementAndGet();
+            return coalesced.future;
+        }
+        // The call is taken out before it runs, so a call submitted while it runs is queued again
+        enqueue(new Call(priority, sequence.getAndIncrement(), () -> {
+            pendingCoalescedCalls.remove(key, coalesced);
+            coalesced.call.run();
+        }, coalesced.future));
+        return coalesced.future;
+    }
+
+    private void enqueue(Call call) {
+        queueDepths.incrementAndGet(call.priority.ordinal());
+        queue.put(call);
+    }
+
+    private void run() {
+        while (true) {
+            Call call;
+            try {
+                call = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            queueDepths.decrementAndGet(call.priority.ordinal());
+            long start = System.nanoTime();
+            waitTimes.record((start - call.submittedNanos) / 1e6);
+            try {
+                call.call.run();
+                call.future.complete(null);
+            } catch (Throwable t) {
+                failedCalls.incrementAndGet();
+                call.future.completeExceptionally(t);
+            }
+            executionTimes.record((System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    /**
+     * @return The number of calls waiting to run
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
+        loggedQueueDepths = snapshot(queueDepths, loggedQueueDepths);
+        int queueDepth = 0;
+        for (int depth : loggedQueueDepths) {
+            queueDepth += depth;
+        }
+        Logger.log(path, "Queue Depth", queueDepth);
+        Logger.log(path, "Queue Depth By Priority", loggedQueueDepths);
+        Logger.log(path, "Coalesced Calls", coalescedCalls.get());
+        Logger.log(path, "Failed Calls", failedCalls.get());
+        Logger.log(path, "Wait Time Ms Bucket Bounds", Histogram.bucketBoundsMs);
+        Logger.log(path, "Wait Time Ms Histogram", waitTimes.getCounts());
+        Logger.log(path, "Execution Time Ms Histogram", executionTimes.getCounts());
+    }
+
+    private static final class Call implements Comparable<Call> {
+        final Priority priority;
+        final long sequence;
+        final Runnable call;
+        final CompletableFuture<Void> future;
+        final long submittedNanos = System.nanoTime();
+
+        Call(Priority priority, long sequence, Runnable call, CompletableFuture<Void> future) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+            this.future = future;
+        }
+
+        @Override
+        public int compareTo(Call other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class CoalescedCall {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        volatile Runnable call;
+
+        CoalescedCall(Runnable call) {
+            this.call = call;
+        }
+    }
+
+    /**
+     * Reads counts written by the blocking calls thread into an array to log. Arrays handed
+     * to the logger are never modified, as it may still be holding on to them, so a new
+     * array is only made when a count has changed
+     * @param counts The counts
+     * @param last The array that was last logged
+     * @return The last array if nothing changed, otherwise a new one
+     */
+    private static int[] snapshot(AtomicIntegerArray counts, int[] last) {
+        for (int i = 0; i < last.length; i++) {
+            if (counts.get(i) != last[i]) {
+                int[] snapshot = new int[last.length];
+                for (int j = 0; j < snapshot.length; j++) {
+                    snapshot[j] = counts.get(j);
+                }
+                return snapshot;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Counts durations into fixed buckets, written by the blocking calls thread and read by the main loop
+     */
+    private static final class Histogram {
+        // The upper bound of each bucket, with a last bucket for everything longer
+        static final double[] bucketBoundsMs = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+        private final AtomicIntegerArray counts = new AtomicIntegerArray(bucketBoundsMs.length + 1);
+        private int[] logged = new int[bucketBoundsMs.length + 1];
+
+        void record(double durationMs) {
+            int bucket = 0;
+            while (bucket < bucketBoundsMs.length && durationMs > bucketBoundsMs[bucket]) {
+                bucket++;
+            }
+            counts.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return The counts, in an array that's only replaced when they change and is never modified
+         */
+        int[] getCounts() {
+            logged = snapshot(counts, logged);
+            return logged;
+        }
+    }
+}
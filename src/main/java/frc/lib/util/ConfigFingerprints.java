@@ -0,0 +1,128 @@
+package frc.lib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * A store of the fingerprint of the config last applied to each device, kept in a file
+ * so it lasts between boots.
+ * <p>
+ * A device whose intended config has the same fingerprint as the one last applied to it
+ * doesn't need it applied again at boot, which is slow and, for devices that persist their
+ * config, wears out their flash. The file can be out of date, as a device can be swapped
+ * or reset, so a device that's skipped should still have its config checked in the background.
+ * <p>
+ * Note: Until a file is loaded with {@link #load(Path)}, nothing ever matches, so every
+ * device is configured like normal
+ */
+public final class ConfigFingerprints {
+    private static final Properties fingerprints = new Properties();
+    private static Path file = null;
+
+    private ConfigFingerprints() {}
+
+    /**
+     * Loads the fingerprints from a file, which is saved to whenever a fingerprint changes
+     * @param path The file, which doesn't have to exist yet
+     */
+    public static synchronized void load(Path path) {
+        file = path;
+        fingerprints.clear();
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                fingerprints.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                // A corrupt file only means every device gets configured again
+                fingerprints.clear();
+                DriverStation.reportWarning("Failed to load config fingerprints, configuring every device", false);
+            }
+        }
+    }
+
+    /**
+     * Creates the fingerprint of a config
+     * @param serializedConfig The config, serialized to a string by its vendor library
+     * @return The fingerprint
+     */
+    public static String of(String serializedConfig) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(serializedConfig.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the name a device's fingerprint is stored under
+     * @param type The type of device
+     * @param canbus The CAN bus the device is on
+     * @param id The CAN ID of the device
+     * @return The name of the device
+     */
+    public static String deviceName(String type, String canbus, int id) {
+        return type + "/" + canbus + "/" + id;
+    }
+
+    /**
+     * Creates the name the fingerprint of a device's config, as read back from the device
+     * right after it was applied, is stored under. Devices round the values they store, so
+     * a config read back from a device is only ever compared to one read back before
+     * @param device The name of the device, see {@link #deviceName(String, String, int)}
+     * @return The name of the device's read back config
+     */
+    public static String readBackName(String device) {
+        return device + "/Read Back";
+    }
+
+    /**
+     * @param device The name of the device, see {@link #deviceName(String, String, int)}
+     * @param fingerprint The fingerprint of the config the device should have
+     * @return Whether that config was the last one applied to the device
+     */
+    public static synchronized boolean matches(String device, String fingerprint) {
+        return file != null && fingerprint.equals(fingerprints.getProperty(device));
+    }
+
+    /**
+     * Records that a config was applied to a device
+     * @param device The name of the device, see {@link #deviceName(String, String, int)}
+     * @param fingerprint The fingerprint of the config
+     */
+    public static synchronized void record(String device, String fingerprint) {
+        if (!fingerprint.equals(fingerprints.setProperty(device, fingerprint))) {
+            save();
+        }
+    }
+
+    private static void save() {
+        if (file == null) {
+            return;
+        }
+        // Written to a temporary file first, so the file is never left half written
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            fingerprints.store(out, "Fingerprints of the config last applied to each device");
+        } catch (IOException e) {
+            DriverStation.reportWarning("Failed to save config fingerprints", false);
+            return;
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            DriverStation.reportWarning("Failed to save config fingerprints", false);
+        }
+    }
+}
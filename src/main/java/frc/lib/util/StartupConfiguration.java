@@ -0,0 +1,147 @@
+package frc.lib.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Logger;
+
+/**
+ * The stage where every device is configured when the robot boots.
+ * <p>
+ * Devices submit their configuration while the subsystems are being constructed, which
+ * only gathers it. Once every subsystem has been constructed, {@link #start()} applies
+ * everything that was gathered, with a few devices on each CAN bus being configured at
+ * once, so the time to configure the robot doesn't grow with every device added.
+ * <p>
+ * Note: Nothing is configured until {@link #start()} is called. Configuration submitted
+ * after that is applied right away, but isn't waited on by {@link #whenReady()}
+ */
+public final class StartupConfiguration {
+    // Configuring a device blocks on its responses, so a few at once keep a bus busy without flooding it
+    private static final int threadsPerBus = 2;
+
+    private static final Map<String, List<Runnable>> gatheredByBus = new HashMap<>();
+    private static final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+    private static final List<CompletableFuture<Void>> gathered = new ArrayList<>();
+    private static final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private static final AtomicInteger failures = new AtomicInteger();
+    private static boolean started = false;
+    private static volatile double secondsToReady = Double.NaN;
+
+    private StartupConfiguration() {}
+
+    /**
+     * Submits a device's configuration
+     * @param canbus The CAN bus the device is on
+     * @param configure The call that configures the device, which may block
+     * @return A future that completes once the call has run. It always completes normally,
+     * as a device that fails to configure shouldn't hold back anything waiting on it
+     */
+    public static synchronized CompletableFuture<Void> submit(String canbus, Runnable configure) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                configure.run();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+            future.complete(null);
+        };
+        if (started) {
+            getExecutor(canbus).execute(task);
+        } else {
+            gatheredByBus.computeIfAbsent(canbus, bus -> new ArrayList<>()).add(task);
+            gathered.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Starts applying the gathered configuration, which should be done once every
+     * subsystem has been constructed. Calling this again does nothing
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        long start = System.nanoTime();
+        CompletableFuture.allOf(gathered.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            secondsToReady = (System.nanoTime() - start) / 1e9;
+            ready.complete(null);
+        });
+        for (Map.Entry<String, List<Runnable>> bus : gatheredByBus.entrySet()) {
+            ThreadPoolExecutor executor = getExecutor(bus.getKey());
+            for (Runnable task : bus.getValue()) {
+                executor.execute(task);
+            }
+        }
+        gatheredByBus.clear();
+        gathered.clear();
+    }
+
+    private static ThreadPoolExecutor getExecutor(String canbus) {
+        return executors.computeIfAbsent(canbus, bus -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadsPerBus, threadsPerBus, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), call -> {
+                    Thread thread = new Thread(call, "Startup Configuration " + bus);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            // The threads are only needed while the robot boots
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * @return Whether every device gathered before {@link #start()} has been configured
+     */
+    public static boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * @return A future that completes once every device gathered before {@link #start()} has been configured
+     */
+    public static CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    /**
+     * Blocks until every device has been configured, or until the timeout runs out
+     * @param timeoutSeconds The longest to wait
+     * @return Whether every device has been configured
+     */
+    public static boolean awaitReady(double timeoutSeconds) {
+        try {
+            ready.get((long) (timeoutSeconds * 1e9), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Logs whether the robot is configured, how long it took, and how many devices failed to configure
+     * @param path The path to log under
+     */
+    public static void log(LogPath path) {
+        Logger.log(path, "Ready", isReady());
+        Logger.log(path, "Seconds To Ready", secondsToReady);
+        Logger.log(path, "Failures", failures.get());
+    }
+}
@@ -0,0 +1,203 @@
+package frc.lib.util;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.interpolation.InterpolatingTreeMap;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Loggable;
+import frc.lib.util.logging.Logger;
+
+/**
+ * A registry of code to run while the robot is disabled, so it's already been loaded and
+ * compiled by the time it's first needed, rather than stuttering the first loop it runs in.
+ * <p>
+ * Every registered task is run once a round, a round or more a loop while disabled, until
+ * the JIT compiler goes a few rounds without compiling anything new. Tasks must only use
+ * no-op or simulated IO, as anything they write to a real device lands on it.
+ * <p>
+ * The time each task took the first time it ran and the last time it ran are logged and
+ * reported to the driver station once warmup is done, so the worst first runs can be found
+ * and compared.
+ * <p>
+ * Note: Warmup stops once {@link #stop()} is called, which should be done as the robot
+ * leaves disabled, whether or not it's done
+ */
+public final class Warmup {
+    // Rounds in a row without new compilation before warmup is done
+    private static final int stableRounds = 5;
+    private static final int maxRounds = 500;
+    // Time spent warming up each loop, beyond the first round of the loop
+    private static final double loopBudgetSeconds = 0.005;
+    private static final int reportedTasks = 5;
+
+    private static final List<Task> tasks = new ArrayList<>();
+    private static final CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+    private static final LogPath loggablesPath = LogPath.of("Warmup");
+    // Results are written here so the JIT can't drop the work that produced them
+    private static volatile Object sink;
+
+    private static boolean done = false;
+    private static int rounds = 0;
+    private static int roundsWithoutCompilation = 0;
+    private static long lastCompilationMs = -1;
+
+    private Warmup() {}
+
+    private static final class Task {
+        final String name;
+        final Runnable run;
+        // Whether the task only runs in the first and last rounds
+        final boolean firstAndLastOnly;
+        double coldMs = Double.NaN;
+        double warmMs = Double.NaN;
+
+        Task(String name, Runnable run, boolean firstAndLastOnly) {
+            this.name = name;
+            this.run = run;
+            this.firstAndLastOnly = firstAndLastOnly;
+        }
+    }
+
+    /**
+     * Registers code to warm up
+     * @param name The name the task is reported under
+     * @param task The code, which is run many times
+     */
+    public static synchronized void register(String name, Runnable task) {
+        tasks.add(new Task(name, task, false));
+    }
+
+    /**
+     * Registers a command to warm up, which is initialized, executed and ended without
+     * being scheduled, so it doesn't interrupt anything
+     * @param name The name the command is reported under
+     * @param command Creates the command, a new one is made every round
+     */
+    public static void registerCommand(String name, Supplier<Command> command) {
+        register(name, () -> {
+            Command instance = command.get();
+            instance.initialize();
+            instance.execute();
+            instance.execute();
+            instance.end(true);
+        });
+    }
+
+    /**
+     * Registers an interpolation map to warm up
+     * @param name The name the map is reported under
+     * @param map The map
+     * @param query A key to look up, ideally between two points of the map
+     */
+    public static <K, V> void registerMap(String name, InterpolatingTreeMap<K, V> map, K query) {
+        register(name, () -> sink = map.get(query));
+    }
+
+    /**
+     * Registers something logged to warm up, which is logged under Warmup rather than its real path
+     * <p>
+     * It's only logged in the first and last rounds, so its first and warm times are reported
+     * without flooding the log with a copy of it every round. Logging is warmed up by the robot's
+     * own logging, which runs every loop while disabled anyway
+     * @param name The name it's logged and reported under
+     * @param loggable The thing to log
+     */
+    public static synchronized void registerLoggable(String name, Loggable loggable) {
+        tasks.add(new Task(name, () -> Logger.log(loggablesPath, name, loggable), true));
+    }
+
+    /**
+     * Runs as many rounds as fit in the loop, which should be done every loop while disabled
+     */
+    public static synchronized void periodic() {
+        if (done || !DriverStation.isDisabled()) {
+            return;
+        }
+        long loopStart = System.nanoTime();
+        do {
+            runRound();
+        } while (!done && (System.nanoTime() - loopStart) / 1e9 < loopBudgetSeconds);
+    }
+
+    private static void runRound() {
+        for (Task task : tasks) {
+            if (!task.firstAndLastOnly || rounds == 0) {
+                run(task);
+            }
+        }
+        rounds++;
+        if (compiler != null && compiler.isCompilationTimeMonitoringSupported()) {
+            long compilationMs = compiler.getTotalCompilationTime();
+            roundsWithoutCompilation = compilationMs == lastCompilationMs ? roundsWithoutCompilation + 1 : 0;
+            lastCompilationMs = compilationMs;
+        }
+        if (roundsWithoutCompilation >= stableRounds || rounds >= maxRounds) {
+            for (Task task : tasks) {
+                if (task.firstAndLastOnly && rounds > 1) {
+                    run(task);
+                }
+            }
+            finish();
+        }
+    }
+
+    private static void run(Task task) {
+        long start = System.nanoTime();
+        task.run.run();
+        double ms = (System.nanoTime() - start) / 1e6;
+        if (Double.isNaN(task.coldMs)) {
+            task.coldMs = ms;
+        }
+        task.warmMs = ms;
+    }
+
+    /**
+     * Stops warming up, so none of the loop is spent on it once the robot is enabled
+     */
+    public static synchronized void stop() {
+        if (!done) {
+            finish();
+        }
+    }
+
+    private static void finish() {
+        done = true;
+        List<Task> worst = new ArrayList<>(tasks);
+        worst.removeIf(task -> Double.isNaN(task.coldMs));
+        worst.sort(Comparator.comparingDouble((Task task) -> task.coldMs).reversed());
+        StringBuilder report = new StringBuilder("Warmup finished after " + rounds + " rounds, worst first runs:");
+        for (int i = 0; i < Math.min(reportedTasks, worst.size()); i++) {
+            Task task = worst.get(i);
+            report.append(String.format("%n  %s: %.2f ms first, %.3f ms warm", task.name, task.coldMs, task.warmMs));
+        }
+        DriverStation.reportWarning(report.toString(), false);
+    }
+
+    /**
+     * @return Whether warmup is done, either because everything was compiled or because it was stopped
+     */
+    public static synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Logs the progress of warmup, and the first and last times of each task
+     * @param path The path to log under
+     */
+    public static synchronized void log(LogPath path) {
+        Logger.log(path, "Done", done);
+        Logger.log(path, "Rounds", rounds);
+        for (Task task : tasks) {
+            LogPath taskPath = path.child(task.name);
+            Logger.log(taskPath, "First Run Ms", task.coldMs);
+            Logger.log(taskPath, "Warm Run Ms", task.warmMs);
+        }
+    }
+}
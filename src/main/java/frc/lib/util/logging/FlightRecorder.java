@@ -0,0 +1,404 @@
+package frc.lib.util.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * A sink for {@link Logger} that keeps the most recent values logged in a fixed size,
+ * memory mapped ring file.
+ * <p>
+ * Values are written straight into the mapped file, so recording a value is just a
+ * few memory writes with no system calls, and because the file is mapped, everything
+ * written is still in the file if the robot code crashes. How many seconds the ring
+ * holds depends on how much is being logged, the oldest values are overwritten first.
+ * <p>
+ * The file starts with a header and a dictionary of every key and struct schema that
+ * has been recorded, followed by the ring. The ring is split into chunks that each
+ * start with a sequence number and the number of bytes used, and records never span
+ * chunks, so every chunk can be read on its own and put back in order by sequence.
+ * Each record is the key's id, a timestamp in microseconds and a length prefixed
+ * payload that's already encoded the way a .wpilog stores it.
+ * <p>
+ * When a recorder is opened, any ring left behind by the last run is moved to a file
+ * ending in ".prev" so it isn't overwritten. Rings can be turned into a .wpilog with
+ * {@link FlightRecorderConverter}
+ * <p>
+ * Note: The whole ring is flushed to storage once a second from a background thread,
+ * which covers power loss as well as crashes, at the cost of up to a second of data
+ */
+public final class FlightRecorder {
+    static final int magic = 0x43455246; // "FREC"
+    static final int version = 1;
+    static final int headerSize = 64;
+    static final int chunkHeaderSize = 12;
+    static final int recordHeaderSize = 16;
+
+    // Header offsets
+    static final int magicOffset = 0;
+    static final int versionOffset = 4;
+    static final int dictionaryCapacityOffset = 8;
+    static final int dictionaryUsedOffset = 12;
+    static final int chunkSizeOffset = 16;
+    static final int chunkCountOffset = 20;
+
+    // Dictionary entry kinds
+    static final byte kindKey = 1;
+    static final byte kindSchema = 2;
+
+    private final MappedByteBuffer mapped;
+    private final ByteBuffer buffer;
+    private final int dictionaryCapacity;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final int chunksStart;
+    private final long timestampOffset;
+    private final Set<String> recordedSchemas = new HashSet<>();
+
+    private int dictionaryUsed = 0;
+    private int nextKeyId = 0;
+    private int chunk = -1;
+    private int chunkUsed = 0;
+    private long sequence = 0;
+    private long droppedRecords = 0;
+
+    /**
+     * Creates a flight recorder with a 64 KiB chunk size and dictionary
+     * @param file The file to keep the ring in
+     * @param sizeBytes The total size of the file
+     * @throws IOException If the file couldn't be created and mapped
+     */
+    public FlightRecorder(Path file, int sizeBytes) throws IOException {
+        this(file, sizeBytes, 64 * 1024, 64 * 1024);
+    }
+
+    /**
+     * Creates a flight recorder
+     * @param file The file to keep the ring in
+     * @param sizeBytes The total size of the file
+     * @param chunkSize The size of each chunk of the ring, which is also the most a single record can take
+     * @param dictionaryCapacity The space set aside for key names and struct schemas
+     * @throws IOException If the file couldn't be created and mapped
+     */
+    public FlightRecorder(Path file, int sizeBytes, int chunkSize, int dictionaryCapacity) throws IOException {
+        this.chunkSize = chunkSize;
+        this.dictionaryCapacity = dictionaryCapacity;
+        this.chunksStart = headerSize + dictionaryCapacity;
+        this.chunkCount = (sizeBytes - chunksStart) / chunkSize;
+        if (chunkCount < 2) {
+            throw new IllegalArgumentException("Flight recorder of " + sizeBytes + " bytes is too small for two chunks");
+        }
+
+        if (Files.exists(file)) {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".prev"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, chunksStart + (long) chunkCount * chunkSize);
+        }
+        buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(versionOffset, version);
+        buffer.putInt(dictionaryCapacityOffset, dictionaryCapacity);
+        buffer.putInt(dictionaryUsedOffset, 0);
+        buffer.putInt(chunkSizeOffset, chunkSize);
+        buffer.putInt(chunkCountOffset, chunkCount);
+        // The magic is written last, so a half written header is never mistaken for a ring
+        buffer.putInt(magicOffset, magic);
+
+        timestampOffset = RobotController.getFPGATime() - System.nanoTime() / 1000;
+
+        Thread syncThread = new Thread(this::syncPeriodically, "Flight Recorder Sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    private void syncPeriodically() {
+        while (true) {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            mapped.force();
+        }
+    }
+
+    /**
+     * @return The number of records that were too big for a chunk, or whose key didn't
+     * fit in the dictionary
+     */
+    public synchronized long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    // Dictionary
+
+    private void putDictionaryString(int position, String value, boolean wideLength) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (wideLength) {
+            buffer.putInt(position, bytes.length);
+        } else {
+            buffer.putShort(position, (short) bytes.length);
+        }
+        buffer.put(position + (wideLength ? 4 : 2), bytes);
+    }
+
+    private static int dictionaryStringSize(String value, boolean wideLength) {
+        return (wideLength ? 4 : 2) + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Appends an entry to the dictionary, and only then marks it as used
+     * @return Whether the entry fit
+     */
+    private boolean appendDictionary(byte kind, int id, String first, String second, boolean wideSecond) {
+        int size = 1 + (kind == kindKey ? 4 : 0) + dictionaryStringSize(first, false) + dictionaryStringSize(second, wideSecond);
+        if (dictionaryUsed + size > dictionaryCapacity) {
+            return false;
+        }
+        int position = headerSize + dictionaryUsed;
+        buffer.put(position++, kind);
+        if (kind == kindKey) {
+            buffer.putInt(position, id);
+            position += 4;
+        }
+        putDictionaryString(position, first, false);
+        position += dictionaryStringSize(first, false);
+        putDictionaryString(position, second, wideSecond);
+        dictionaryUsed += size;
+        buffer.putInt(dictionaryUsedOffset, dictionaryUsed);
+        return true;
+    }
+
+    private boolean recordSchema(Struct<?> struct) {
+        String name = "struct:" + struct.getTypeName();
+        if (recordedSchemas.contains(name)) {
+            return true;
+        }
+        for (Struct<?> nested : struct.getNested()) {
+            if (!recordSchema(nested)) {
+                return false;
+            }
+        }
+        if (!appendDictionary(kindSchema, 0, name, struct.getSchema(), true)) {
+            return false;
+        }
+        recordedSchemas.add(name);
+        return true;
+    }
+
+    /**
+     * Gets the id of a key, adding it to the dictionary the first time it's recorded with the given type
+     * @param type The type of the value, or null if it's a struct
+     * @param struct The struct of the value, or null if it isn't a struct
+     * @param array Whether the value is an array of structs
+     * @return The id, or -1 if the key couldn't be added
+     */
+    private int keyId(LogKey key, String type, Struct<?> struct, boolean array) {
+        if (key.recorder == this && key.recorderType == type && key.recorderStruct == struct && key.recorderArray == array) {
+            return key.recorderId;
+        }
+        String typeName = struct == null ? type : "struct:" + struct.getTypeName() + (array ? "[]" : "");
+        if ((struct != null && !recordSchema(struct)) || !appendDictionary(kindKey, nextKeyId, key.get(), typeName, false)) {
+            return -1;
+        }
+        key.recorder = this;
+        key.recorderType = type;
+        key.recorderStruct = struct;
+        key.recorderArray = array;
+        key.recorderId = nextKeyId++;
+        return key.recorderId;
+    }
+
+    // Ring
+
+    private int chunkStart(int index) {
+        return chunksStart + index * chunkSize;
+    }
+
+    private void nextChunk() {
+        chunk = (chunk + 1) % chunkCount;
+        chunkUsed = 0;
+        int start = chunkStart(chunk);
+        // Clearing the used bytes before bumping the sequence means a crash in between leaves an empty chunk
+        buffer.putInt(start + 8, 0);
+        buffer.putLong(start, ++sequence);
+    }
+
+    /**
+     * Starts a record, moving onto the next chunk if the record doesn't fit in this one
+     * @return The position to write the payload at, or -1 if the record can't be written
+     */
+    private int begin(LogKey key, String type, Struct<?> struct, boolean array, int payloadSize) {
+        int id = keyId(key, type, struct, array);
+        int size = recordHeaderSize + payloadSize;
+        if (id < 0 || size > chunkSize - chunkHeaderSize) {
+            droppedRecords++;
+            return -1;
+        }
+        if (chunk < 0 || chunkUsed + size > chunkSize - chunkHeaderSize) {
+            nextChunk();
+        }
+        int position = chunkStart(chunk) + chunkHeaderSize + chunkUsed;
+        buffer.putInt(position, id);
+        buffer.putLong(position + 4, timestampOffset + System.nanoTime() / 1000);
+        buffer.putInt(position + 12, payloadSize);
+        return position + recordHeaderSize;
+    }
+
+    /**
+     * Marks the record started by the last call to begin as complete
+     */
+    private void commit(int payloadSize) {
+        chunkUsed += recordHeaderSize + payloadSize;
+        buffer.putInt(chunkStart(chunk) + 8, chunkUsed);
+    }
+
+    synchronized void record(LogKey key, boolean value) {
+        int position = begin(key, "boolean", null, false, 1);
+        if (position >= 0) {
+            buffer.put(position, (byte) (value ? 1 : 0));
+            commit(1);
+        }
+    }
+
+    synchronized void record(LogKey key, double value) {
+        int position = begin(key, "double", null, false, 8);
+        if (position >= 0) {
+            buffer.putDouble(position, value);
+            commit(8);
+        }
+    }
+
+    synchronized void record(LogKey key, int value) {
+        int position = begin(key, "int64", null, false, 8);
+        if (position >= 0) {
+            buffer.putLong(position, value);
+            commit(8);
+        }
+    }
+
+    synchronized void record(LogKey key, String value) {
+        recordString(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized void record(LogKey key, Enum<?> value) {
+        recordString(key, value.name().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void recordString(LogKey key, byte[] bytes) {
+        int position = begin(key, "string", null, false, bytes.length);
+        if (position >= 0) {
+            buffer.put(position, bytes);
+            commit(bytes.length);
+        }
+    }
+
+    synchronized void record(LogKey key, boolean[] value) {
+        int position = begin(key, "boolean[]", null, false, value.length);
+        if (position >= 0) {
+            for (int i = 0; i < value.length; i++) {
+                buffer.put(position + i, (byte) (value[i] ? 1 : 0));
+            }
+            commit(value.length);
+        }
+    }
+
+    synchronized void record(LogKey key, double[] value) {
+        int position = begin(key, "double[]", null, false, value.length * 8);
+        if (position >= 0) {
+            for (int i = 0; i < value.length; i++) {
+                buffer.putDouble(position + i * 8, value[i]);
+            }
+            commit(value.length * 8);
+        }
+    }
+
+    synchronized void record(LogKey key, int[] value) {
+        int position = begin(key, "int64[]", null, false, value.length * 8);
+        if (position >= 0) {
+            for (int i = 0; i < value.length; i++) {
+                buffer.putLong(position + i * 8, value[i]);
+            }
+            commit(value.length * 8);
+        }
+    }
+
+    synchronized void record(LogKey key, String[] value) {
+        byte[][] strings = new byte[value.length][];
+        for (int i = 0; i < value.length; i++) {
+            strings[i] = value[i].getBytes(StandardCharsets.UTF_8);
+        }
+        recordStrings(key, strings);
+    }
+
+    synchronized void record(LogKey key, Enum<?>[] value) {
+        byte[][] strings = new byte[value.length][];
+        for (int i = 0; i < value.length; i++) {
+            strings[i] = value[i].name().getBytes(StandardCharsets.UTF_8);
+        }
+        recordStrings(key, strings);
+    }
+
+    private void recordStrings(LogKey key, byte[][] strings) {
+        int size = 4;
+        for (byte[] string : strings) {
+            size += 4 + string.length;
+        }
+        int position = begin(key, "string[]", null, false, size);
+        if (position >= 0) {
+            buffer.putInt(position, strings.length);
+            int offset = position + 4;
+            for (byte[] string : strings) {
+                buffer.putInt(offset, string.length);
+                buffer.put(offset + 4, string);
+                offset += 4 + string.length;
+            }
+            commit(size);
+        }
+    }
+
+    synchronized void record(LogKey key, StructSerializable value) {
+        Struct<StructSerializable> struct = key.getStruct(value);
+        if (struct == null) {
+            droppedRecords++;
+            return;
+        }
+        int position = begin(key, null, struct, false, struct.getSize());
+        if (position >= 0) {
+            buffer.position(position);
+            struct.pack(buffer, value);
+            commit(struct.getSize());
+        }
+    }
+
+    synchronized void record(LogKey key, StructSerializable[] value) {
+        Struct<StructSerializable> struct = value.length == 0 ? null : key.getStruct(value[0]);
+        if (struct == null) {
+            droppedRecords++;
+            return;
+        }
+        int size = struct.getSize() * value.length;
+        int position = begin(key, null, struct, true, size);
+        if (position >= 0) {
+            buffer.position(position);
+            for (StructSerializable element : value) {
+                struct.pack(buffer, element);
+            }
+            commit(size);
+        }
+    }
+}
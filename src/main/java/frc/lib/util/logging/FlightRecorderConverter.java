@@ -0,0 +1,189 @@
+package frc.lib.util.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a ring left behind by a {@link FlightRecorder} into a .wpilog that can be
+ * opened in AdvantageScope.
+ * <p>
+ * The .wpilog is written directly rather than through DataLog, so this can be run on
+ * any computer without the WPILib native libraries:
+ * <pre>
+ * java -cp robot.jar frc.lib.util.logging.FlightRecorderConverter flight-recorder.bin.prev [output.wpilog]
+ * </pre>
+ */
+public final class FlightRecorderConverter {
+    private FlightRecorderConverter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: FlightRecorderConverter <ring file> [output .wpilog]");
+            System.exit(1);
+        }
+        Path input = Path.of(args[0]);
+        Path output = args.length == 2 ? Path.of(args[1]) : input.resolveSibling(input.getFileName() + ".wpilog");
+        int records = convert(input, output);
+        System.out.println("Wrote " + records + " records to " + output);
+    }
+
+    /**
+     * Converts a flight recorder ring into a .wpilog
+     * @param input The ring file
+     * @param output The .wpilog to write
+     * @return The number of records written
+     * @throws IOException If the ring couldn't be read or the .wpilog couldn't be written
+     */
+    public static int convert(Path input, Path output) throws IOException {
+        ByteBuffer ring = ByteBuffer.wrap(Files.readAllBytes(input)).order(ByteOrder.LITTLE_ENDIAN);
+        if (ring.limit() < FlightRecorder.headerSize || ring.getInt(FlightRecorder.magicOffset) != FlightRecorder.magic) {
+            throw new IOException(input + " is not a flight recorder ring");
+        }
+        if (ring.getInt(FlightRecorder.versionOffset) != FlightRecorder.version) {
+            throw new IOException(input + " is version " + ring.getInt(FlightRecorder.versionOffset)
+                + ", expected " + FlightRecorder.version);
+        }
+        int dictionaryCapacity = ring.getInt(FlightRecorder.dictionaryCapacityOffset);
+        int dictionaryUsed = ring.getInt(FlightRecorder.dictionaryUsedOffset);
+        int chunkSize = ring.getInt(FlightRecorder.chunkSizeOffset);
+        int chunkCount = ring.getInt(FlightRecorder.chunkCountOffset);
+        int chunksStart = FlightRecorder.headerSize + dictionaryCapacity;
+
+        try (WpilogWriter writer = new WpilogWriter(Files.newOutputStream(output))) {
+            // Dictionary, schemas are started right away and keys are started when first used
+            Map<Integer, String[]> keys = new HashMap<>();
+            int position = FlightRecorder.headerSize;
+            int end = FlightRecorder.headerSize + dictionaryUsed;
+            while (position < end) {
+                byte kind = ring.get(position++);
+                int id = 0;
+                if (kind == FlightRecorder.kindKey) {
+                    id = ring.getInt(position);
+                    position += 4;
+                }
+                int firstLength = Short.toUnsignedInt(ring.getShort(position));
+                String first = readString(ring, position + 2, firstLength);
+                position += 2 + firstLength;
+                boolean wideSecond = kind == FlightRecorder.kindSchema;
+                int secondLength = wideSecond ? ring.getInt(position) : Short.toUnsignedInt(ring.getShort(position));
+                position += wideSecond ? 4 : 2;
+                if (kind == FlightRecorder.kindSchema) {
+                    int entry = writer.start(".schema/" + first, "structschema");
+                    writer.append(entry, 0, ring, position, secondLength);
+                } else {
+                    keys.put(id, new String[] {first, readString(ring, position, secondLength)});
+                }
+                position += secondLength;
+            }
+
+            // Chunks, put back in the order they were written
+            List<Integer> chunks = new ArrayList<>();
+            for (int i = 0; i < chunkCount; i++) {
+                if (ring.getLong(chunksStart + i * chunkSize) != 0) {
+                    chunks.add(i);
+                }
+            }
+            chunks.sort((a, b) -> Long.compare(
+                ring.getLong(chunksStart + a * chunkSize), ring.getLong(chunksStart + b * chunkSize)));
+
+            Map<Integer, Integer> entries = new HashMap<>();
+            int records = 0;
+            for (int chunk : chunks) {
+                int start = chunksStart + chunk * chunkSize;
+                int used = Math.min(ring.getInt(start + 8), chunkSize - FlightRecorder.chunkHeaderSize);
+                position = start + FlightRecorder.chunkHeaderSize;
+                end = position + used;
+                while (position + FlightRecorder.recordHeaderSize <= end) {
+                    int id = ring.getInt(position);
+                    long timestamp = ring.getLong(position + 4);
+                    int length = ring.getInt(position + 12);
+                    position += FlightRecorder.recordHeaderSize;
+                    if (length < 0 || position + length > end) {
+                        break;
+                    }
+                    String[] key = keys.get(id);
+                    if (key != null) {
+                        Integer entry = entries.get(id);
+                        if (entry == null) {
+                            entry = writer.start(key[0], key[1]);
+                            entries.put(id, entry);
+                        }
+                        writer.append(entry, timestamp, ring, position, length);
+                        records++;
+                    }
+                    position += length;
+                }
+            }
+            return records;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the .wpilog format, always using 4 byte entry ids and payload sizes and 8 byte timestamps
+     */
+    private static final class WpilogWriter implements AutoCloseable {
+        private final OutputStream out;
+        private final ByteBuffer scratch = ByteBuffer.allocate(17).order(ByteOrder.LITTLE_ENDIAN);
+        private int nextEntry = 1;
+
+        WpilogWriter(OutputStream out) throws IOException {
+            this.out = new BufferedOutputStream(out);
+            this.out.write("WPILOG".getBytes(StandardCharsets.US_ASCII));
+            // Version 1.0, and no extra header
+            this.out.write(new byte[] {0x00, 0x01, 0, 0, 0, 0});
+        }
+
+        private void writeRecordHeader(int entry, int size, long timestamp) throws IOException {
+            scratch.clear();
+            scratch.put((byte) 0x7F);
+            scratch.putInt(entry);
+            scratch.putInt(size);
+            scratch.putLong(timestamp);
+            out.write(scratch.array(), 0, scratch.position());
+        }
+
+        int start(String name, String type) throws IOException {
+            int entry = nextEntry++;
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 4 + nameBytes.length + 4 + typeBytes.length + 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            payload.put((byte) 0);
+            payload.putInt(entry);
+            payload.putInt(nameBytes.length);
+            payload.put(nameBytes);
+            payload.putInt(typeBytes.length);
+            payload.put(typeBytes);
+            payload.putInt(0);
+            writeRecordHeader(0, payload.capacity(), 0);
+            out.write(payload.array());
+            return entry;
+        }
+
+        void append(int entry, long timestamp, ByteBuffer source, int position, int length) throws IOException {
+            writeRecordHeader(entry, length, timestamp);
+            out.write(source.array(), position, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package frc.lib.util.logging;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import dev.doglog.DogLog;
+import edu.wpi.first.networktables.BooleanArrayPublisher;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.Publisher;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogEntry;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringArrayLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.util.datalog.StructArrayLogEntry;
+import edu.wpi.first.util.datalog.StructLogEntry;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * A snapshot of every write made during a loop, waiting to be published.
+ * <p>
+ * Writes are stored in parallel arrays of slots. Primitives are stored inline,
+ * arrays are copied into an array owned by the slot and structs are packed into a
+ * buffer owned by the slot, so once a loop has been captured once, capturing the
+ * same writes again doesn't allocate.
+ * <p>
+ * Every write is stamped with the FPGA time it was made at, which it's published
+ * with. DogLog can only stamp values with the time they're handed to it, so captured
+ * writes are published straight to the DataLog and NetworkTables entries under
+ * {@value #prefix}, the same entries DogLog writes to.
+ * <p>
+ * Note: A buffer is filled by one thread and then drained by another, but never
+ * both at the same time, see {@link Logger#setAsyncPublishing(boolean)}
+ */
+final class LogBuffer {
+    private static final byte typeBoolean = 0;
+    private static final byte typeDouble = 1;
+    private static final byte typeInt = 2;
+    private static final byte typeString = 3;
+    private static final byte typeEnum = 4;
+    private static final byte typeBooleanArray = 5;
+    private static final byte typeDoubleArray = 6;
+    private static final byte typeIntArray = 7;
+    private static final byte typeStringArray = 8;
+    private static final byte typeEnumArray = 9;
+    private static final byte typeStruct = 10;
+    private static final byte typeStructArray = 11;
+
+    private static final String prefix = "/Robot/";
+    // The entries each key is published to, shared by every buffer
+    private static final Map<LogKey, Entries> entries = new IdentityHashMap<>();
+
+    private final int maxSize;
+    private int size = 0;
+    private long droppedWrites = 0;
+    // Write times are measured from the FPGA time at the last calibration
+    private long calibrationMicros = 0;
+    private long calibrationNanos = 0;
+
+    private LogKey[] keys;
+    private byte[] types;
+    private long[] timestamps;
+    private long[] bits;
+    private Object[] objects;
+    @SuppressWarnings("rawtypes")
+    private Struct[] structs;
+
+    /**
+     * @param initialSize The number of writes to preallocate space for
+     * @param maxSize The most writes the buffer can hold, after which writes are dropped
+     */
+    LogBuffer(int initialSize, int maxSize) {
+        this.maxSize = maxSize;
+        keys = new LogKey[initialSize];
+        types = new byte[initialSize];
+        timestamps = new long[initialSize];
+        bits = new long[initialSize];
+        objects = new Object[initialSize];
+        structs = new Struct[initialSize];
+    }
+
+    /**
+     * Reads the FPGA time that the times of the writes that follow are measured from
+     * <p>
+     * Reading the FPGA time goes through the HAL, so it's read once a loop and each write is
+     * timed with {@link System#nanoTime()} from there instead
+     */
+    void calibrate() {
+        calibrationMicros = RobotController.getFPGATime();
+        calibrationNanos = System.nanoTime();
+    }
+
+    /**
+     * Claims the next slot, stamped with the current time
+     * @return The index of the slot, or -1 if the buffer is full
+     */
+    private int claim(LogKey key, byte type) {
+        if (size == keys.length) {
+            if (size >= maxSize) {
+                droppedWrites++;
+                return -1;
+            }
+            int capacity = Math.min(maxSize, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            types = Arrays.copyOf(types, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            bits = Arrays.copyOf(bits, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            structs = Arrays.copyOf(structs, capacity);
+        }
+        keys[size] = key;
+        types[size] = type;
+        structs[size] = null;
+        timestamps[size] = calibrationMicros + (System.nanoTime() - calibrationNanos) / 1000;
+        return size++;
+    }
+
+    void add(LogKey key, boolean value) {
+        int slot = claim(key, typeBoolean);
+        if (slot >= 0) {
+            bits[slot] = value ? 1 : 0;
+        }
+    }
+
+    void add(LogKey key, double value) {
+        int slot = claim(key, typeDouble);
+        if (slot >= 0) {
+            bits[slot] = Double.doubleToRawLongBits(value);
+        }
+    }
+
+    void add(LogKey key, int value) {
+        int slot = claim(key, typeInt);
+        if (slot >= 0) {
+            bits[slot] = value;
+        }
+    }
+
+    void add(LogKey key, String value) {
+        int slot = claim(key, typeString);
+        if (slot >= 0) {
+            objects[slot] = value;
+        }
+    }
+
+    void add(LogKey key, Enum<?> value) {
+        int slot = claim(key, typeEnum);
+        if (slot >= 0) {
+            objects[slot] = value;
+        }
+    }
+
+    void add(LogKey key, boolean[] value) {
+        int slot = claim(key, typeBooleanArray);
+        if (slot >= 0) {
+            if (objects[slot] instanceof boolean[] copy && copy.length == value.length) {
+                System.arraycopy(value, 0, copy, 0, value.length);
+            } else {
+                objects[slot] = value.clone();
+            }
+        }
+    }
+
+    void add(LogKey key, double[] value) {
+        int slot = claim(key, typeDoubleArray);
+        if (slot >= 0) {
+            if (objects[slot] instanceof double[] copy && copy.length == value.length) {
+                System.arraycopy(value, 0, copy, 0, value.length);
+            } else {
+                objects[slot] = value.clone();
+            }
+        }
+    }
+
+    void add(LogKey key, int[] value) {
+        int slot = claim(key, typeIntArray);
+        if (slot >= 0) {
+            if (objects[slot] instanceof int[] copy && copy.length == value.length) {
+                System.arraycopy(value, 0, copy, 0, value.length);
+            } else {
+                objects[slot] = value.clone();
+            }
+        }
+    }
+
+    void add(LogKey key, String[] value) {
+        addObjects(key, typeStringArray, value);
+    }
+
+    void add(LogKey key, Enum<?>[] value) {
+        addObjects(key, typeEnumArray, value);
+    }
+
+    private void addObjects(LogKey key, byte type, Object[] value) {
+        int slot = claim(key, type);
+        if (slot >= 0) {
+            // The copy has to be the exact same array type, or copying into it could fail
+            Object copy = objects[slot];
+            if (copy != null && copy.getClass() == value.getClass() && ((Object[]) copy).length == value.length) {
+                System.arraycopy(value, 0, copy, 0, value.length);
+            } else {
+                objects[slot] = value.clone();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void add(LogKey key, StructSerializable value) {
+        Struct<StructSerializable> struct = key.getStruct(value);
+        if (struct == null) {
+            // Without a struct the value can't be captured, so it's published immediately
+            DogLog.log(key.get(), value);
+            return;
+        }
+        int slot = claim(key, typeStruct);
+        if (slot >= 0) {
+            structs[slot] = struct;
+            ByteBuffer buffer = reserve(slot, struct.getSize());
+            struct.pack(buffer, value);
+            buffer.flip();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void add(LogKey key, StructSerializable[] value) {
+        Struct<StructSerializable> struct = value.length == 0 ? null : key.getStruct(value[0]);
+        if (struct == null) {
+            DogLog.log(key.get(), value);
+            return;
+        }
+        int slot = claim(key, typeStructArray);
+        if (slot >= 0) {
+            structs[slot] = struct;
+            bits[slot] = value.length;
+            ByteBuffer buffer = reserve(slot, struct.getSize() * value.length);
+            for (StructSerializable element : value) {
+                struct.pack(buffer, element);
+            }
+            buffer.flip();
+        }
+    }
+
+    /**
+     * @return A cleared buffer owned by the slot with at least the given capacity
+     */
+    private ByteBuffer reserve(int slot, int capacity) {
+        if (objects[slot] instanceof ByteBuffer buffer && buffer.capacity() >= capacity) {
+            buffer.clear();
+            return buffer;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        objects[slot] = buffer;
+        return buffer;
+    }
+
+    /**
+     * Publishes every captured write in the order they were made, then clears the buffer
+     * <p>
+     * Structs are unpacked here, as they're only written out after the loop that captured them
+     * @param enabled Whether logging is enabled, if not the writes are only cleared
+     * @param ntPublish Whether writes are published to NetworkTables as well as the DataLog
+     */
+    void publish(boolean enabled, boolean ntPublish) {
+        // Both buffers can be published at once while async publishing is turned off
+        synchronized (entries) {
+            for (int i = 0; i < size; i++) {
+                if (enabled) {
+                    publish(i, ntPublish);
+                }
+                // Let go of values that aren't reused by the slot
+                if (types[i] == typeString || types[i] == typeEnum) {
+                    objects[i] = null;
+                }
+            }
+        }
+        size = 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void publish(int slot, boolean ntPublish) {
+        Entries target = entries.get(keys[slot]);
+        if (target == null || target.type != types[slot] || target.struct != structs[slot]) {
+            target = new Entries(keys[slot], types[slot], structs[slot]);
+            entries.put(keys[slot], target);
+        }
+        Publisher publisher = ntPublish ? target.publisher() : null;
+        long timestamp = timestamps[slot];
+        Object object = objects[slot];
+        switch (types[slot]) {
+            case typeBoolean -> {
+                boolean value = bits[slot] != 0;
+                ((BooleanLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((BooleanPublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeDouble -> {
+                double value = Double.longBitsToDouble(bits[slot]);
+                ((DoubleLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((DoublePublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeInt -> {
+                ((IntegerLogEntry) target.entry).append(bits[slot], timestamp);
+                if (publisher != null) {
+                    ((IntegerPublisher) publisher).set(bits[slot], timestamp);
+                }
+            }
+            case typeString, typeEnum -> {
+                String value = object instanceof Enum<?> constant ? constant.name() : (String) object;
+                ((StringLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((StringPublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeBooleanArray -> {
+                ((BooleanArrayLogEntry) target.entry).append((boolean[]) object, timestamp);
+                if (publisher != null) {
+                    ((BooleanArrayPublisher) publisher).set((boolean[]) object, timestamp);
+                }
+            }
+            case typeDoubleArray -> {
+                ((DoubleArrayLogEntry) target.entry).append((double[]) object, timestamp);
+                if (publisher != null) {
+                    ((DoubleArrayPublisher) publisher).set((double[]) object, timestamp);
+                }
+            }
+            case typeIntArray -> {
+                int[] ints = (int[]) object;
+                long[] value = new long[ints.length];
+                for (int j = 0; j < ints.length; j++) {
+                    value[j] = ints[j];
+                }
+                ((IntegerArrayLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((IntegerArrayPublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeStringArray, typeEnumArray -> {
+                Object[] values = (Object[]) object;
+                String[] value = values instanceof String[] strings ? strings : new String[values.length];
+                if (value != values) {
+                    for (int j = 0; j < values.length; j++) {
+                        value[j] = ((Enum<?>) values[j]).name();
+                    }
+                }
+                ((StringArrayLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((StringArrayPublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeStruct -> {
+                Object value = structs[slot].unpack((ByteBuffer) object);
+                ((StructLogEntry) target.entry).append(value, timestamp);
+                if (publisher != null) {
+                    ((StructPublisher) publisher).set(value, timestamp);
+                }
+            }
+            case typeStructArray -> {
+                Struct struct = structs[slot];
+                ByteBuffer buffer = (ByteBuffer) object;
+                Object[] values = (Object[]) Array.newInstance(struct.getTypeClass(), (int) bits[slot]);
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = struct.unpack(buffer);
+                }
+                ((StructArrayLogEntry) target.entry).append(values, timestamp);
+                if (publisher != null) {
+                    ((StructArrayPublisher) publisher).set(values, timestamp);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * The DataLog entry a key is published to, and its NetworkTables publisher once it's needed
+     */
+    private static final class Entries {
+        final String name;
+        final byte type;
+        @SuppressWarnings("rawtypes")
+        final Struct struct;
+        final DataLogEntry entry;
+        private Publisher publisher = null;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entries(LogKey key, byte type, Struct struct) {
+            this.name = prefix + key.get();
+            this.type = type;
+            this.struct = struct;
+            DataLog log = DataLogManager.getLog();
+            entry = switch (type) {
+                case typeBoolean -> new BooleanLogEntry(log, name);
+                case typeDouble -> new DoubleLogEntry(log, name);
+                case typeInt -> new IntegerLogEntry(log, name);
+                case typeString, typeEnum -> new StringLogEntry(log, name);
+                case typeBooleanArray -> new BooleanArrayLogEntry(log, name);
+                case typeDoubleArray -> new DoubleArrayLogEntry(log, name);
+                case typeIntArray -> new IntegerArrayLogEntry(log, name);
+                case typeStringArray, typeEnumArray -> new StringArrayLogEntry(log, name);
+                case typeStruct -> StructLogEntry.create(log, name, struct);
+                case typeStructArray -> StructArrayLogEntry.create(log, name, struct);
+                default -> throw new IllegalArgumentException("Unknown log type " + type);
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Publisher publisher() {
+            if (publisher == null) {
+                NetworkTableInstance nt = NetworkTableInstance.getDefault();
+                publisher = switch (type) {
+                    case typeBoolean -> nt.getBooleanTopic(name).publish();
+                    case typeDouble -> nt.getDoubleTopic(name).publish();
+                    case typeInt -> nt.getIntegerTopic(name).publish();
+                    case typeString, typeEnum -> nt.getStringTopic(name).publish();
+                    case typeBooleanArray -> nt.getBooleanArrayTopic(name).publish();
+                    case typeDoubleArray -> nt.getDoubleArrayTopic(name).publish();
+                    case typeIntArray -> nt.getIntegerArrayTopic(name).publish();
+                    case typeStringArray, typeEnumArray -> nt.getStringArrayTopic(name).publish();
+                    case typeStruct -> nt.getStructTopic(name, (Struct<Object>) struct).publish();
+                    case typeStructArray -> nt.getStructArrayTopic(name, (Struct<Object>) struct).publish();
+                    default -> throw new IllegalArgumentException("Unknown log type " + type);
+                };
+            }
+            return publisher;
+        }
+    }
+
+    /**
+     * @return The number of writes waiting to be published
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of writes dropped because the buffer was full since this was last called
+     */
+    long takeDroppedWrites() {
+        long dropped = droppedWrites;
+        droppedWrites = 0;
+        return dropped;
+    }
+}
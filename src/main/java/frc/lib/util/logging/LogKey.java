@@ -0,0 +1,242 @@
+package frc.lib.util.logging;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+import edu.wpi.first.units.Unit;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructFetcher;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * A handle to a single value in the log tree.
+ * <p>
+ * The full key is built once when the handle is created, so logging through a
+ * handle never builds a new String. Handles are obtained from {@link LogPath#key(String)}
+ * <p>
+ * Each handle also remembers the last value written through it, which is what
+ * {@link Logger}'s delta mode compares against to skip repeated writes
+ * @see LogPath
+ */
+public final class LogKey {
+    private final LogPath parent;
+    private final String key;
+
+    /** The unit last recorded for the value at this key, null if none has been recorded */
+    Unit unit;
+    private double[] packed;
+
+    // Flight recorder state, see FlightRecorder
+    FlightRecorder recorder;
+    String recorderType;
+    Struct<?> recorderStruct;
+    boolean recorderArray;
+    int recorderId;
+
+    // Delta state, only updated while delta mode is enabled
+    private int lastWriteCycle = -1;
+    private long lastBits;
+    private Object lastObject;
+    private boolean[] lastBooleans;
+    private double[] lastDoubles;
+    private int[] lastInts;
+    private Object[] lastObjects;
+    @SuppressWarnings("rawtypes")
+    private Struct struct;
+    private ByteBuffer lastStruct;
+    private ByteBuffer nextStruct;
+
+    LogKey(LogPath parent, String name) {
+        this.parent = parent;
+        this.key = parent.get() + "/" + name;
+    }
+
+    /**
+     * @return The directory this key is in
+     */
+    public LogPath getParent() {
+        return parent;
+    }
+
+    /**
+     * @return The full key
+     */
+    public String get() {
+        return key;
+    }
+
+    /**
+     * Gets the array owned by this key that arrays of measures are packed into before being logged
+     * @param length The number of measures being logged
+     * @return The array, which is only reallocated when the length changes
+     */
+    double[] getPackedBuffer(int length) {
+        if (packed == null || packed.length != length) {
+            packed = new double[length];
+        }
+        return packed;
+    }
+
+    /**
+     * Records that a value was logged to this key while in delta mode
+     * @param same Whether the value is the same as the last value written to this key
+     * @return Whether the write should be skipped, which is only the case if the value
+     * is the same and this key has been written since the last keyframe
+     */
+    private boolean recordRepeat(boolean same) {
+        int cycle = Logger.getCycle();
+        if (same && lastWriteCycle >= Logger.getDeltaStartCycle()
+            && cycle - lastWriteCycle < Logger.getKeyframeInterval()) {
+            return true;
+        }
+        lastWriteCycle = cycle;
+        return false;
+    }
+
+    private boolean repeatsBits(long bits) {
+        boolean same = bits == lastBits;
+        lastBits = bits;
+        return recordRepeat(same);
+    }
+
+    boolean repeats(boolean value) {
+        return repeatsBits(value ? 1 : 0);
+    }
+
+    boolean repeats(double value) {
+        return repeatsBits(Double.doubleToLongBits(value));
+    }
+
+    boolean repeats(int value) {
+        return repeatsBits(value);
+    }
+
+    boolean repeats(Object value) {
+        boolean same = Objects.equals(lastObject, value);
+        lastObject = value;
+        return recordRepeat(same);
+    }
+
+    boolean repeats(boolean[] value) {
+        boolean same = Arrays.equals(lastBooleans, value);
+        if (!same) {
+            if (lastBooleans == null || lastBooleans.length != value.length) {
+                lastBooleans = value.clone();
+            } else {
+                System.arraycopy(value, 0, lastBooleans, 0, value.length);
+            }
+        }
+        return recordRepeat(same);
+    }
+
+    boolean repeats(double[] value) {
+        boolean same = Arrays.equals(lastDoubles, value);
+        if (!same) {
+            if (lastDoubles == null || lastDoubles.length != value.length) {
+                lastDoubles = value.clone();
+            } else {
+                System.arraycopy(value, 0, lastDoubles, 0, value.length);
+            }
+        }
+        return recordRepeat(same);
+    }
+
+    boolean repeats(int[] value) {
+        boolean same = Arrays.equals(lastInts, value);
+        if (!same) {
+            if (lastInts == null || lastInts.length != value.length) {
+                lastInts = value.clone();
+            } else {
+                System.arraycopy(value, 0, lastInts, 0, value.length);
+            }
+        }
+        return recordRepeat(same);
+    }
+
+    boolean repeats(Object[] value) {
+        boolean same = Arrays.equals(lastObjects, value);
+        if (!same) {
+            if (lastObjects == null || lastObjects.length != value.length) {
+                lastObjects = value.clone();
+            } else {
+                System.arraycopy(value, 0, lastObjects, 0, value.length);
+            }
+        }
+        return recordRepeat(same);
+    }
+
+    /*
+     * Structs are compared by their packed bytes, as most of them are either
+     * immutable or reused between loops, so neither equals nor the reference can be trusted
+     */
+    @SuppressWarnings("unchecked")
+    boolean repeats(StructSerializable value) {
+        if (!packStruct(value, 1)) {
+            return recordRepeat(false);
+        }
+        struct.pack(nextStruct, value);
+        return recordRepeat(swapStructs());
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean repeats(StructSerializable[] value) {
+        if (value.length == 0 || !packStruct(value[0], value.length)) {
+            return recordRepeat(false);
+        }
+        for (StructSerializable element : value) {
+            struct.pack(nextStruct, element);
+        }
+        return recordRepeat(swapStructs());
+    }
+
+    /**
+     * Gets the struct used to serialize values at this key, which is cached as
+     * values logged to the same key are almost always the same type
+     * @param value The value being logged
+     * @return The struct for the value's type, or null if it doesn't have one
+     */
+    @SuppressWarnings("unchecked")
+    Struct<StructSerializable> getStruct(StructSerializable value) {
+        if (struct == null || struct.getTypeClass() != value.getClass()) {
+            struct = StructFetcher.fetchStruct((Class<StructSerializable>) value.getClass()).orElse(null);
+            lastStruct = null;
+            nextStruct = null;
+        }
+        return struct;
+    }
+
+    /**
+     * Prepares the next struct buffer to have the given number of structs packed into it
+     * @return Whether the struct of the value could be found
+     */
+    private boolean packStruct(StructSerializable value, int count) {
+        if (getStruct(value) == null) {
+            return false;
+        }
+        int size = struct.getSize() * count;
+        if (nextStruct == null || nextStruct.capacity() != size) {
+            nextStruct = ByteBuffer.allocate(size);
+        }
+        nextStruct.clear();
+        return true;
+    }
+
+    /**
+     * Swaps the struct buffers, so the newly packed value becomes the last value
+     * @return Whether the newly packed value is the same as the last value
+     */
+    private boolean swapStructs() {
+        nextStruct.flip();
+        boolean same = nextStruct.equals(lastStruct);
+        ByteBuffer last = lastStruct;
+        lastStruct = nextStruct;
+        nextStruct = last;
+        return same;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,234 @@
+package frc.lib.util.logging;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A handle to a directory in the log tree.
+ * <p>
+ * The full name of every child directory and key is built the first time it is
+ * requested and then cached on this handle, so walking the same subtree every loop
+ * does not build any new Strings.
+ * <p>
+ * Handles are canonical, meaning {@code LogPath.of("Robot/Superstructure")} and
+ * {@code LogPath.of("Robot").child("Superstructure")} return the same object.
+ * <p>
+ * Note: Resolving new children is not thread safe, so handles should only be walked
+ * from the main robot thread
+ * @see LogKey
+ * @see Loggable
+ */
+public final class LogPath {
+    private static final Map<String, LogPath> interned = new ConcurrentHashMap<>();
+    // Bumped whenever a rate is set so every path re-resolves which rate applies to it
+    private static int rateVersion = 0;
+    private static int staggerCount = 0;
+
+    private final String path;
+    private final LogPath parent;
+    private final Map<String, LogPath> children = new HashMap<>();
+    private final Map<String, LogKey> keys = new HashMap<>();
+    private LogPath[] indices = new LogPath[0];
+    private long suppressedWrites = 0;
+
+    private LogRate rate = null;
+    private int phase = 0;
+    private LogPath rateSource = null;
+    private int resolvedRateVersion = -1;
+    private int visitCycle = -1;
+    private int visits = 0;
+    private boolean due = true;
+
+    // Profiling state, see LogProfiler
+    boolean profiled = false;
+    boolean critical = false;
+    long profileStartNanos;
+    long profileStartBytes;
+    long profiledNanos;
+    long profiledBytes;
+
+    private LogPath(LogPath parent, String name) {
+        this.parent = parent;
+        this.path = parent == null ? name : parent.path + "/" + name;
+    }
+
+    /**
+     * Gets the handle for the given path, creating it the first time it is requested
+     * @param path The full path of the directory, with directories separated by "/"
+     * @return The canonical handle for the path
+     */
+    public static LogPath of(String path) {
+        LogPath handle = interned.get(path);
+        if (handle == null) {
+            int split = path.lastIndexOf('/');
+            if (split > 0 && split < path.length() - 1) {
+                handle = of(path.substring(0, split)).child(path.substring(split + 1));
+            } else {
+                handle = new LogPath(null, path);
+            }
+            interned.put(path, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Gets the handle for a child directory of this path
+     * @param name The name of the child, which may itself contain "/" separated directories
+     * @return The cached handle for the child
+     */
+    public LogPath child(String name) {
+        LogPath child = children.get(name);
+        if (child == null) {
+            int split = name.lastIndexOf('/');
+            if (split > 0 && split < name.length() - 1) {
+                child = child(name.substring(0, split)).child(name.substring(split + 1));
+            } else {
+                child = new LogPath(this, name);
+            }
+            children.put(name, child);
+        }
+        return child;
+    }
+
+    /**
+     * Gets the handle for a child directory named after an array index
+     * @param index The index of the element
+     * @return The cached handle for the child
+     */
+    public LogPath index(int index) {
+        if (index >= indices.length) {
+            indices = Arrays.copyOf(indices, index + 1);
+        }
+        if (indices[index] == null) {
+            indices[index] = child(Integer.toString(index));
+        }
+        return indices[index];
+    }
+
+    /**
+     * Gets the handle for a key within this directory
+     * @param name The name of the key, which may be prefixed by "/" separated directories
+     * @return The cached handle for the key
+     */
+    public LogKey key(String name) {
+        LogKey key = keys.get(name);
+        if (key == null) {
+            int split = name.lastIndexOf('/');
+            if (split > 0 && split < name.length() - 1) {
+                key = child(name.substring(0, split)).key(name.substring(split + 1));
+            } else {
+                key = new LogKey(this, name);
+            }
+            keys.put(name, key);
+        }
+        return key;
+    }
+
+    /**
+     * @return The directory this path is in, or null if this is a top level path
+     */
+    public LogPath getParent() {
+        return parent;
+    }
+
+    /**
+     * Records a write that was skipped by delta mode somewhere in this subtree
+     */
+    void recordSuppressedWrite() {
+        for (LogPath path = this; path != null; path = path.parent) {
+            path.suppressedWrites++;
+        }
+    }
+
+    /**
+     * @return The number of writes to keys within this subtree that have been skipped
+     * by {@link Logger}'s delta mode because their value didn't change
+     */
+    public long getSuppressedWrites() {
+        return suppressedWrites;
+    }
+
+    /**
+     * Sets the rate of this subtree, staggering decimated subtrees so they
+     * don't all land on the same loop
+     * @param rate The new rate, or null to go back to the rate of the parent
+     */
+    void setRate(LogRate rate) {
+        this.rate = rate;
+        if (rate != null && rate.getPeriod() > 1) {
+            phase = staggerCount++ % rate.getPeriod();
+        }
+        rateVersion++;
+    }
+
+    /**
+     * @return The closest path at or above this one with an explicitly set rate,
+     * or null if no rate is set
+     */
+    private LogPath getRateSource() {
+        if (resolvedRateVersion != rateVersion) {
+            rateSource = rate != null ? this : parent != null ? parent.getRateSource() : null;
+            resolvedRateVersion = rateVersion;
+        }
+        return rateSource;
+    }
+
+    /**
+     * @return The rate explicitly set on this path, or null if it uses the rate of its parent
+     */
+    LogRate getOwnRate() {
+        return rate;
+    }
+
+    /**
+     * @return The rate this subtree is written at
+     */
+    public LogRate getRate() {
+        LogPath source = getRateSource();
+        return source == null ? LogRate.everyLoop() : source.rate;
+    }
+
+    /**
+     * Checks whether this subtree should be written on the given loop
+     * <p>
+     * Decimation counts the loops the subtree is actually reached on rather than every
+     * loop, so a decimated subtree inside another decimated subtree is written at a
+     * fraction of its parent's rate instead of possibly never lining up with it
+     * @param cycle The current loop count
+     * @return Whether this subtree should be written on the given loop
+     */
+    boolean isDue(int cycle) {
+        LogPath source = getRateSource();
+        if (source == null || source.rate.getPeriod() == 1) {
+            return true;
+        }
+        if (source.visitCycle != cycle) {
+            source.visitCycle = cycle;
+            source.due = (source.visits + source.phase) % source.rate.getPeriod() == 0;
+            source.visits++;
+        }
+        return source.due;
+    }
+
+    /**
+     * @return Whether only changed values should be written in this subtree
+     */
+    boolean isOnChange() {
+        LogPath source = getRateSource();
+        return source != null && source.rate.isOnChange();
+    }
+
+    /**
+     * @return The full path of this directory
+     */
+    public String get() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
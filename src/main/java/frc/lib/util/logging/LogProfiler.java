@@ -0,0 +1,166 @@
+package frc.lib.util.logging;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dev.doglog.DogLog;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Measures how much time and memory logging each profiled subtree costs.
+ * <p>
+ * Every {@link Loggable} logged through {@link Logger} is timed while profiling is
+ * enabled, and subtrees registered with {@link Logger#profile(LogPath, boolean)}
+ * also have their own time and allocations recorded. The averages are published
+ * under "Logger/Profile" once every publish interval, and if the average time spent
+ * logging each loop is over budget, the most expensive non-critical subtree has its
+ * rate halved.
+ * <p>
+ * Note: Times and allocations of a subtree include any profiled subtrees within it
+ */
+final class LogProfiler {
+    private static final int publishInterval = 50;
+    private static final int topCount = 5;
+    private static final int maxDegradedPeriod = 25;
+
+    private static final LogKey loggingTimeKey = LogPath.of("Logger/Profile").key("Logging Time Ms");
+    private static final LogKey topKey = LogPath.of("Logger/Profile").key("Top");
+
+    private static final List<LogPath> profiledPaths = new ArrayList<>();
+    private static final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+
+    private static boolean enabled = false;
+    private static double budgetMilliseconds = 0;
+    private static int depth = 0;
+    private static long rootStartNanos;
+    private static long windowNanos = 0;
+    private static int windowLoops = 0;
+    private static LogPath[] ranked = new LogPath[0];
+    private static final String[] top = new String[topCount];
+
+    private LogProfiler() {}
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        LogProfiler.enabled = enabled;
+    }
+
+    static void setBudget(double milliseconds) {
+        budgetMilliseconds = milliseconds;
+    }
+
+    static void profile(LogPath path, boolean critical) {
+        if (!path.profiled) {
+            path.profiled = true;
+            profiledPaths.add(path);
+            ranked = profiledPaths.toArray(new LogPath[0]);
+        }
+        path.critical = critical;
+        enabled = true;
+    }
+
+    private static long allocatedBytes() {
+        return threadBean == null ? 0 : threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Called before a loggable is logged to the given path
+     */
+    static void enter(LogPath path) {
+        if (depth++ == 0) {
+            rootStartNanos = System.nanoTime();
+        }
+        if (path.profiled) {
+            path.profileStartBytes = allocatedBytes();
+            path.profileStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Called after a loggable has been logged to the given path
+     */
+    static void exit(LogPath path) {
+        long now = System.nanoTime();
+        if (path.profiled) {
+            path.profiledNanos += now - path.profileStartNanos;
+            path.profiledBytes += allocatedBytes() - path.profileStartBytes;
+        }
+        if (--depth == 0) {
+            windowNanos += now - rootStartNanos;
+        }
+    }
+
+    /**
+     * Called once at the end of every loop, publishes the profile and applies the
+     * budget once every publish interval
+     */
+    static void periodic() {
+        if (!enabled || ++windowLoops < publishInterval) {
+            return;
+        }
+        double loggingMilliseconds = windowNanos / 1e6 / windowLoops;
+        DogLog.log(loggingTimeKey.get(), loggingMilliseconds);
+
+        // Insertion sort, as there are only ever a handful of profiled subtrees
+        for (int i = 1; i < ranked.length; i++) {
+            LogPath path = ranked[i];
+            int j = i - 1;
+            while (j >= 0 && ranked[j].profiledNanos < path.profiledNanos) {
+                ranked[j + 1] = ranked[j];
+                j--;
+            }
+            ranked[j + 1] = path;
+        }
+        int count = Math.min(topCount, ranked.length);
+        for (int i = 0; i < count; i++) {
+            LogPath path = ranked[i];
+            top[i] = path.get() + ": " + Math.round(path.profiledNanos / 1e3 / windowLoops) / 1e3 + " ms, "
+                + Math.round((double) path.profiledBytes / windowLoops) + " B per loop";
+        }
+        DogLog.log(topKey.get(), count == topCount ? top : Arrays.copyOf(top, count));
+
+        if (budgetMilliseconds > 0 && loggingMilliseconds > budgetMilliseconds) {
+            degrade(loggingMilliseconds);
+        }
+
+        for (LogPath path : ranked) {
+            path.profiledNanos = 0;
+            path.profiledBytes = 0;
+        }
+        windowNanos = 0;
+        windowLoops = 0;
+    }
+
+    /**
+     * Halves the rate of the most expensive non-critical subtree that can still be slowed down
+     */
+    private static void degrade(double loggingMilliseconds) {
+        for (LogPath path : ranked) {
+            // Rates nest, so only the subtree's own rate is slowed down
+            LogRate rate = path.getOwnRate() == null ? LogRate.everyLoop() : path.getOwnRate();
+            if (path.critical || rate.isOnChange() || rate.getPeriod() >= maxDegradedPeriod) {
+                continue;
+            }
+            LogRate degraded = LogRate.everyNLoops(Math.min(maxDegradedPeriod, rate.getPeriod() * 2));
+            path.setRate(degraded);
+            DriverStation.reportWarning("Logging took " + Math.round(loggingMilliseconds * 100) / 100.0
+                + " ms per loop, over the " + budgetMilliseconds + " ms budget, slowing " + path.get()
+                + " to " + degraded, false);
+            return;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package frc.lib.util.logging;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * How often a subtree of the log tree is written.
+ * <p>
+ * Rates are assigned to a {@link LogPath} with {@link Logger#setRate(LogPath, LogRate)}
+ * and apply to everything below that path, unless a deeper path is given its own rate
+ */
+public final class LogRate {
+    private static final LogRate everyLoop = new LogRate(1, false);
+    private static final LogRate onChange = new LogRate(1, true);
+
+    private final int period;
+    private final boolean onChangeOnly;
+
+    private LogRate(int period, boolean onChangeOnly) {
+        this.period = period;
+        this.onChangeOnly = onChangeOnly;
+    }
+
+    /**
+     * @return A rate that writes every loop
+     */
+    public static LogRate everyLoop() {
+        return everyLoop;
+    }
+
+    /**
+     * @return A rate that only writes values that have changed, along with keyframes,
+     * as if delta mode were enabled for the subtree
+     */
+    public static LogRate onChange() {
+        return onChange;
+    }
+
+    /**
+     * @param loops The number of loops between writes
+     * @return A rate that writes once every given number of loops
+     */
+    public static LogRate everyNLoops(int loops) {
+        if (loops < 1) {
+            throw new IllegalArgumentException("Log rate must be at least 1 loop, got " + loops);
+        }
+        return loops == 1 ? everyLoop : new LogRate(loops, false);
+    }
+
+    /**
+     * @param hertz The target rate, which is rounded to a whole number of default length loops
+     * @return A rate that writes at roughly the given frequency
+     */
+    public static LogRate ofHertz(double hertz) {
+        return everyNLoops((int) Math.max(1, Math.round(1.0 / (hertz * TimedRobot.kDefaultPeriod))));
+    }
+
+    /**
+     * @return The number of loops between writes
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return Whether only changed values are written
+     */
+    public boolean isOnChange() {
+        return onChangeOnly;
+    }
+
+    @Override
+    public String toString() {
+        return onChangeOnly ? "LogRate(on change)" : "LogRate(every " + period + " loops)";
+    }
+}
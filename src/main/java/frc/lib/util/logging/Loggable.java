@@ -6,10 +6,19 @@ public interface Loggable {
      */
     public void log(String path);
 
+    /*
+     * Logs this value out to the given path handle
+     * Implementations that log every loop should override this so walking
+     * their subtree doesn't build new key Strings
+     */
+    public default void log(LogPath path) {
+        log(path.get());
+    }
+
     /*
      * Logs this value out to the subdirectory under the given name
      */
     public default void log(String subdirectory, String name) {
-        log(subdirectory + "/" + name);
+        log(LogPath.of(subdirectory).child(name));
     }
-}
\ No newline at end of file
+}
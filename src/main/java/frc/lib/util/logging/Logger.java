@@ -1,25 +1,358 @@
 package frc.lib.util.logging;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BooleanSupplier;
+
 import dev.doglog.DogLog;
+import dev.doglog.DogLogOptions;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.units.Unit;
 import edu.wpi.first.util.struct.StructSerializable;
 
 public class Logger extends DogLog {
+    private static final LogPath suppressedWritesPath = LogPath.of("Logger/Suppressed Writes");
+
+    private static boolean deltaEnabled = false;
+    private static int keyframeInterval = 50;
+    private static int cycle = 0;
+    private static int deltaStartCycle = 0;
+    private static final List<LogPath> trackedPaths = new ArrayList<>();
+    private static final List<LogKey> trackedKeys = new ArrayList<>();
+
+    private static final LogKey droppedWritesKey = LogPath.of("Logger").key("Dropped Writes");
+    private static final BlockingQueue<LogBuffer> readyBuffers = new ArrayBlockingQueue<>(1);
+    private static final BlockingQueue<LogBuffer> freeBuffers = new ArrayBlockingQueue<>(2);
+    private static long droppedWrites = 0;
+    private static LogBuffer capture = null;
+    private static Thread captureThread = null;
+    private static Thread publisherThread = null;
+    private static FlightRecorder flightRecorder = null;
+    // Mirrors DogLog's settings, which captured writes are published by without going through DogLog
+    private static volatile boolean enabled = true;
+    private static volatile BooleanSupplier ntPublish = new DogLogOptions().ntPublish();
+
+    // Options
+
+    /*
+     * Enables or disables logging, see DogLog.setEnabled
+     */
+    public static void setEnabled(boolean newEnabled) {
+        enabled = newEnabled;
+        DogLog.setEnabled(newEnabled);
+    }
+
+    /*
+     * Sets the options for logging, see DogLog.setOptions
+     */
+    public static void setOptions(DogLogOptions options) {
+        ntPublish = options.ntPublish();
+        DogLog.setOptions(options);
+    }
+
+    // Delta
+
+    /*
+     * Enables or disables delta mode
+     * While enabled, writes to a key handle are skipped if the value is the same as
+     * the last value written to that key, other than a keyframe which is written
+     * every keyframe interval so the log can be read starting from any point
+     */
+    public static void setDeltaEnabled(boolean enabled) {
+        if (enabled && !deltaEnabled) {
+            // Values written while delta mode was off weren't recorded, so they can't be compared against
+            deltaStartCycle = cycle;
+        }
+        deltaEnabled = enabled;
+    }
+
+    /*
+     * Returns whether delta mode is enabled
+     */
+    public static boolean isDeltaEnabled() {
+        return deltaEnabled;
+    }
+
+    /*
+     * Sets the maximum number of loops an unchanged value can go without being written
+     * while in delta mode
+     */
+    public static void setKeyframeInterval(int loops) {
+        if (loops < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1 loop, got " + loops);
+        }
+        keyframeInterval = loops;
+    }
+
+    /*
+     * Logs out the number of writes skipped by delta mode within the given subtree every loop
+     * The count is logged under "Logger/Suppressed Writes/" followed by the path
+     */
+    public static void trackSuppressedWrites(LogPath path) {
+        trackedPaths.add(path);
+        trackedKeys.add(suppressedWritesPath.key(path.get()));
+    }
+
+    /*
+     * Advances the logger to the next loop
+     * Should be called once at the end of every robot loop
+     */
+    public static void periodic() {
+        if (deltaEnabled) {
+            for (int i = 0; i < trackedPaths.size(); i++) {
+                DogLog.log(trackedKeys.get(i).get(), (double) trackedPaths.get(i).getSuppressedWrites());
+            }
+        }
+        LogProfiler.periodic();
+        if (isCapturing()) {
+            swapBuffers();
+        }
+        cycle++;
+    }
+
+    // Async
+
+    /*
+     * Enables or disables asynchronous publishing
+     * While enabled, writes made from the thread that enabled it are captured into a
+     * buffer instead of being handed to DogLog. At the end of each loop the buffer is
+     * passed to a background thread which publishes it while the next loop fills a
+     * second buffer, so the robot loop only pays for copying values
+     * Writes from any other thread are still published immediately, so this should
+     * be called from the main robot thread
+     * Captured values keep the time they were written at, so they're published to
+     * the DataLog and NetworkTables directly rather than through DogLog, which would
+     * stamp them with the time they were published
+     */
+    public static synchronized void setAsyncPublishing(boolean enabled) {
+        if (enabled == (capture != null)) {
+            return;
+        }
+        if (enabled) {
+            if (publisherThread == null) {
+                freeBuffers.add(new LogBuffer(1024, 65536));
+                freeBuffers.add(new LogBuffer(1024, 65536));
+                publisherThread = new Thread(Logger::publishBuffers, "Logger Publisher");
+                publisherThread.setDaemon(true);
+                publisherThread.start();
+            }
+            // There are only two buffers and the publisher can hold at most one of them
+            capture = freeBuffers.poll();
+            capture.calibrate();
+            captureThread = Thread.currentThread();
+        } else {
+            LogBuffer buffer = capture;
+            capture = null;
+            captureThread = null;
+            // Anything already captured is published now so it isn't lost
+            publish(buffer);
+            freeBuffers.offer(buffer);
+        }
+    }
+
+    /*
+     * Returns whether asynchronous publishing is enabled
+     */
+    public static boolean isAsyncPublishing() {
+        return capture != null;
+    }
+
+    private static boolean isCapturing() {
+        return capture != null && Thread.currentThread() == captureThread;
+    }
+
+    /*
+     * Hands the captured loop to the publisher thread
+     * If the publisher is still busy with the previous loop, this loop is left in the
+     * capture buffer and published along with the next one
+     */
+    private static void swapBuffers() {
+        if (capture.size() == 0) {
+            capture.calibrate();
+            return;
+        }
+        long dropped = capture.takeDroppedWrites();
+        if (dropped > 0) {
+            droppedWrites += dropped;
+            DogLog.log(droppedWritesKey.get(), (double) droppedWrites);
+        }
+        LogBuffer free = freeBuffers.poll();
+        if (free != null) {
+            readyBuffers.offer(capture);
+            capture = free;
+        }
+        capture.calibrate();
+    }
+
+    private static void publishBuffers() {
+        while (true) {
+            try {
+                LogBuffer buffer = readyBuffers.take();
+                publish(buffer);
+                freeBuffers.put(buffer);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void publish(LogBuffer buffer) {
+        buffer.publish(enabled, ntPublish.getAsBoolean());
+    }
+
+    // Flight recorder
+
+    /*
+     * Sets the flight recorder every written value is also recorded to, or null to stop recording
+     * Values skipped by the log rate or delta mode aren't recorded either
+     */
+    public static void setFlightRecorder(FlightRecorder recorder) {
+        flightRecorder = recorder;
+    }
+
+    // Rate
+
+    /*
+     * Sets the rate everything under the given path is written at
+     * Decimated subtrees are staggered so they don't all get written on the same loop
+     */
+    public static void setRate(String path, LogRate rate) {
+        setRate(LogPath.of(path), rate);
+    }
+
+    /*
+     * Sets the rate everything under the given path handle is written at
+     * Decimated subtrees are staggered so they don't all get written on the same loop
+     */
+    public static void setRate(LogPath path, LogRate rate) {
+        path.setRate(rate);
+    }
+
+    /*
+     * Returns whether the given path should be written this loop
+     * Loggables that write values directly rather than through child loggables
+     * can check this to avoid reading values that won't be written
+     */
+    public static boolean shouldLog(LogPath path) {
+        return path.isDue(cycle);
+    }
+
+    private static boolean isSkipped(LogKey key) {
+        return !key.getParent().isDue(cycle);
+    }
+
+    private static boolean isDelta(LogKey key) {
+        return deltaEnabled || key.getParent().isOnChange();
+    }
+
+    /*
+     * Records a write as suppressed if it repeats the last value
+     */
+    private static boolean isSuppressed(LogKey key, boolean repeats) {
+        if (repeats) {
+            key.getParent().recordSuppressedWrite();
+        }
+        return repeats;
+    }
+
+    static int getCycle() {
+        return cycle;
+    }
+
+    static int getDeltaStartCycle() {
+        return deltaStartCycle;
+    }
+
+    static int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    // Profiling
+
+    /*
+     * Records the time and allocations spent logging the given subtree, which are
+     * published under "Logger/Profile" along with the total time spent logging each loop
+     * When over the logging budget, non-critical subtrees are slowed down starting with the most expensive
+     */
+    public static void profile(String path, boolean critical) {
+        profile(LogPath.of(path), critical);
+    }
+
+    /*
+     * Records the time and allocations spent logging the given subtree handle, which are
+     * published under "Logger/Profile" along with the total time spent logging each loop
+     * When over the logging budget, non-critical subtrees are slowed down starting with the most expensive
+     */
+    public static void profile(LogPath path, boolean critical) {
+        LogProfiler.profile(path, critical);
+    }
+
+    /*
+     * Enables or disables profiling, which is enabled automatically when a subtree is profiled
+     */
+    public static void setProfilingEnabled(boolean enabled) {
+        LogProfiler.setEnabled(enabled);
+    }
+
+    /*
+     * Sets the average time logging may take each loop before subtrees are slowed
+     * down, or 0 to never slow down subtrees
+     */
+    public static void setLoggingBudget(double milliseconds) {
+        LogProfiler.setBudget(milliseconds);
+    }
+
+    private static void logLoggable(Loggable value, LogPath path) {
+        if (!LogProfiler.isEnabled()) {
+            value.log(path);
+            return;
+        }
+        LogProfiler.enter(path);
+        try {
+            value.log(path);
+        } finally {
+            LogProfiler.exit(path);
+        }
+    }
+
     // Loggable
 
     /*
      * Logs the given loggable value out to the given key
      */
     public static void log(String key, Loggable value) {
-        value.log(key);
+        LogPath path = LogPath.of(key);
+        if (path.isDue(cycle)) {
+            logLoggable(value, path);
+        }
+    }
+
+    /*
+     * Logs the given loggable value out to the given path handle
+     */
+    public static void log(LogPath path, Loggable value) {
+        if (path.isDue(cycle)) {
+            logLoggable(value, path);
+        }
     }
 
     /*
      * Logs the given loggable out to the given path with the given name
      */
     public static void log(String path, String key, Loggable value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path), key, value);
+    }
+
+    /*
+     * Logs the given loggable out to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, Loggable value) {
+        LogPath child = path.child(key);
+        if (child.isDue(cycle)) {
+            logLoggable(value, child);
+        }
     }
 
     /*
@@ -27,8 +360,58 @@ public class Logger extends DogLog {
      * Creates new subdirectories with the given index
      */
     public static void log(String key, Loggable[] values) {
+        log(LogPath.of(key), values);
+    }
+
+    /*
+     * Logs out an array to the given path handle
+     * Creates new subdirectories with the given index
+     */
+    public static void log(LogPath path, Loggable[] values) {
         for (int i = 0; i < values.length; i++) {
-            log(key, "" + i, values[i]);
+            LogPath child = path.index(i);
+            if (child.isDue(cycle)) {
+                logLoggable(values[i], child);
+            }
+        }
+    }
+
+    /*
+     * Logs out the elements of an array from the start index (inclusive) to the end index
+     * (exclusive) to the given key, without copying the array
+     * Creates new subdirectories with each element's index within the range
+     */
+    public static void log(String key, Loggable[] values, int from, int to) {
+        log(LogPath.of(key), values, from, to);
+    }
+
+    /*
+     * Logs out the elements of an array from the start index (inclusive) to the end index
+     * (exclusive) to the given path handle, without copying the array
+     * Creates new subdirectories with each element's index within the range
+     */
+    public static void log(LogPath path, Loggable[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        for (int i = from; i < to; i++) {
+            LogPath child = path.index(i - from);
+            if (child.isDue(cycle)) {
+                logLoggable(values[i], child);
+            }
+        }
+    }
+
+    /*
+     * Logs out the elements of an array from the start index (inclusive) to the end index
+     * (exclusive) to the given path handle with the given name, without copying the array
+     * Creates new subdirectories with each element's index within the range
+     */
+    public static void log(LogPath path, String key, Loggable[] values, int from, int to) {
+        log(path.child(key), values, from, to);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds for length " + length);
         }
     }
 
@@ -37,7 +420,15 @@ public class Logger extends DogLog {
      * Creates new subdirectories with the given index
      */
     public static void log(String path, String key, Loggable[] values){
-        log(path + "/" + key, values);
+        log(LogPath.of(path).child(key), values);
+    }
+
+    /*
+     * Logs out an array to the given path handle with the given name
+     * Creates new subdirectories with the given index
+     */
+    public static void log(LogPath path, String key, Loggable[] values){
+        log(path.child(key), values);
     }
 
     // Measure
@@ -45,10 +436,38 @@ public class Logger extends DogLog {
     /*
      * Logs out the given measure in the given unit to the given key
      * Creates two sub-values for the value itself and the unit
+     * The unit is only written the first time it's used for the key
      */
     public static <U extends Unit> void log(String key, Measure<U> value, U unit) {
-        log(key, "Value", value.in(unit));
-        log(key, "Units", unit.name());
+        log(LogPath.of(key), value, unit);
+    }
+
+    /*
+     * Logs out the given measure in the given unit to the given path handle
+     * Creates two sub-values for the value itself and the unit
+     * The unit is only written the first time it's used for the key
+     */
+    public static <U extends Unit> void log(LogPath path, Measure<U> value, U unit) {
+        if (!path.isDue(cycle)) {
+            return;
+        }
+        LogKey valueKey = path.key("Value");
+        log(valueKey, value.in(unit));
+        logUnit(path, valueKey, unit);
+    }
+
+    /*
+     * Records the unit of the value at the given key under the path's "Units" key
+     * Only writes when the unit differs from the one last recorded for the key, as
+     * the unit of a key almost never changes
+     * In delta mode or on-change subtrees the unit is handed to the delta filter instead, so it's still
+     * repeated on keyframes
+     */
+    private static void logUnit(LogPath path, LogKey valueKey, Unit unit) {
+        if (valueKey.unit != unit || isDelta(valueKey)) {
+            valueKey.unit = unit;
+            log(path.key("Units"), unit.name());
+        }
     }
 
     /*
@@ -58,12 +477,27 @@ public class Logger extends DogLog {
         log(key, value, value.baseUnit());
     }
 
+    /*
+     * Logs out the given measure in it's base unit to the given path handle
+     */
+    public static <U extends Unit> void log(LogPath path, Measure<U> value) {
+        log(path, value, value.baseUnit());
+    }
+
     /*
      * Logs out the given measure to the given path with the given name
      * in the given unit
      */
     public static <U extends Unit> void log(String path, String key, Measure<U> value, U unit) {
-        log(path + "/" + key, value, unit);
+        log(LogPath.of(path).child(key), value, unit);
+    }
+
+    /*
+     * Logs out the given measure to the given path handle with the given name
+     * in the given unit
+     */
+    public static <U extends Unit> void log(LogPath path, String key, Measure<U> value, U unit) {
+        log(path.child(key), value, unit);
     }
 
     /*
@@ -71,39 +505,144 @@ public class Logger extends DogLog {
      * in the unit's base unit
      */
     public static void log(String path, String key, Measure<?> value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).child(key), value);
     }
 
     /*
-     * Logs out the measures to the given key
+     * Logs out the given measure to the given path handle with the given name
+     * in the unit's base unit
+     */
+    public static void log(LogPath path, String key, Measure<?> value) {
+        log(path.child(key), value);
+    }
+
+    /*
+     * Logs out the measures to the given key as a single array in the given unit
+     * The unit is only written the first time it's used for the key
      */
     public static <U extends Unit> void log(String key, Measure<U>[] values, U unit) {
-        for (int i = 0; i  < values.length; i++){
-            log(key + "/" + i, values[i], unit);
-        }
+        log(LogPath.of(key), values, unit);
     }
 
     /*
-     * Logs out the measures to the given key
+     * Logs out the measures to the given path handle as a single array in the given unit
+     * The unit is only written the first time it's used for the key
+     */
+    public static <U extends Unit> void log(LogPath path, Measure<U>[] values, U unit) {
+        log(path, values, unit, 0, values.length);
+    }
+
+    /*
+     * Logs out the measures to the given key as a single array in their base unit
+     * All the measures must have the same base unit
      */
     public static void log(String key, Measure<?> values[]) {
-        for (int i = 0; i < values.length; i++) {
-            log(key + "/" + i, values[i]);
+        log(LogPath.of(key), values);
+    }
+
+    /*
+     * Logs out the measures to the given path handle as a single array in their base unit
+     * All the measures must have the same base unit
+     */
+    public static void log(LogPath path, Measure<?> values[]) {
+        log(path, values, 0, values.length);
+    }
+
+    /*
+     * Logs out the measures from the start index (inclusive) to the end index (exclusive)
+     * to the given path handle as a single array in the given unit, without copying the array
+     */
+    public static <U extends Unit> void log(LogPath path, Measure<U>[] values, U unit, int from, int to) {
+        checkRange(values.length, from, to);
+        if (!path.isDue(cycle)) {
+            return;
+        }
+        LogKey valueKey = path.key("Value");
+        double[] packed = packBuffer(valueKey, to - from);
+        for (int i = from; i < to; i++) {
+            packed[i - from] = values[i].in(unit);
+        }
+        log(valueKey, packed);
+        logUnit(path, valueKey, unit);
+    }
+
+    /*
+     * Logs out the measures from the start index (inclusive) to the end index (exclusive)
+     * to the given path handle as a single array in their base unit, without copying the array
+     * All the measures in the range must have the same base unit
+     */
+    public static void log(LogPath path, Measure<?>[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        if (!path.isDue(cycle)) {
+            return;
         }
+        LogKey valueKey = path.key("Value");
+        double[] packed = packBuffer(valueKey, to - from);
+        Unit unit = from < to ? values[from].baseUnit() : null;
+        for (int i = from; i < to; i++) {
+            if (!values[i].baseUnit().equals(unit)) {
+                throw new IllegalArgumentException("Measures logged to " + path + " have different units, "
+                    + unit.name() + " and " + values[i].baseUnit().name());
+            }
+            packed[i - from] = values[i].baseUnitMagnitude();
+        }
+        log(valueKey, packed);
+        if (unit != null) {
+            logUnit(path, valueKey, unit);
+        }
+    }
+
+    /*
+     * Gets the array to pack measures into for the given key
+     * The key's array is only reused when the write is being captured, as DogLog
+     * may still be holding on to an array it was handed directly
+     */
+    private static double[] packBuffer(LogKey key, int length) {
+        return isCapturing() ? key.getPackedBuffer(length) : new double[length];
+    }
+
+    /*
+     * Logs out the measures from the start index (inclusive) to the end index (exclusive)
+     * to the given path handle with the given name in the given unit, without copying the array
+     */
+    public static <U extends Unit> void log(LogPath path, String key, Measure<U>[] values, U unit, int from, int to) {
+        log(path.child(key), values, unit, from, to);
+    }
+
+    /*
+     * Logs out the measures from the start index (inclusive) to the end index (exclusive)
+     * to the given path handle with the given name in their base units, without copying the array
+     */
+    public static void log(LogPath path, String key, Measure<?>[] values, int from, int to) {
+        log(path.child(key), values, from, to);
     }
 
     /*
      * Logs out the measures to the given path with the given name
      */
     public static <U extends Unit> void log(String path, String key, Measure<U>[] values, U unit) {
-        log(path + "/" + key, values, unit);
+        log(LogPath.of(path).child(key), values, unit);
+    }
+
+    /*
+     * Logs out the measures to the given path handle with the given name
+     */
+    public static <U extends Unit> void log(LogPath path, String key, Measure<U>[] values, U unit) {
+        log(path.child(key), values, unit);
     }
 
     /*
      * Logs out the measures to the given path with the given name
      */
     public static void log(String path, String key, Measure<?>[] values) {
-        log(path + "/" + key, values);
+        log(LogPath.of(path).child(key), values);
+    }
+
+    /*
+     * Logs out the measures to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, Measure<?>[] values) {
+        log(path.child(key), values);
     }
 
     // boolean
@@ -112,14 +651,62 @@ public class Logger extends DogLog {
      * Logs out the boolean to the given path with the given name
      */
     public static void log(String path, String key, boolean value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the boolean to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, boolean value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the boolean to the given key handle
+     */
+    public static void log(LogKey key, boolean value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the booleans to the given path with the given name
      */
     public static void log(String path, String key, boolean[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the booleans to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, boolean[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the booleans to the given key handle
+     */
+    public static void log(LogKey key, boolean[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     // double
@@ -128,14 +715,62 @@ public class Logger extends DogLog {
      * Logs out the double to the given path with the given name
      */
     public static void log(String path, String key, double value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the double to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, double value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the double to the given key handle
+     */
+    public static void log(LogKey key, double value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the doubles to the given path with the given name
      */
     public static void log(String path, String key, double[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the doubles to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, double[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the doubles to the given key handle
+     */
+    public static void log(LogKey key, double[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     // int
@@ -144,14 +779,62 @@ public class Logger extends DogLog {
      * Logs out the int to the given path with the given name
      */
     public static void log(String path, String key, int value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the int to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, int value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the int to the given key handle
+     */
+    public static void log(LogKey key, int value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the ints to the given path with the given name
      */
     public static void log(String path, String key, int[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the ints to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, int[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the ints to the given key handle
+     */
+    public static void log(LogKey key, int[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     // String
@@ -160,14 +843,62 @@ public class Logger extends DogLog {
      * Logs out the string to the given path with the given name
      */
     public static void log(String path, String key, String value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the string to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, String value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the string to the given key handle
+     */
+    public static void log(LogKey key, String value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the strings to the given path with the given name
      */
     public static void log(String path, String key, String[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the strings to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, String[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the strings to the given key handle
+     */
+    public static void log(LogKey key, String[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     // Struct
@@ -176,14 +907,62 @@ public class Logger extends DogLog {
      * Logs out the serializable structure to the given path with the given name
      */
     public static <T extends StructSerializable> void log(String path, String key, T value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the serializable structure to the given path handle with the given name
+     */
+    public static <T extends StructSerializable> void log(LogPath path, String key, T value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the serializable structure to the given key handle
+     */
+    public static <T extends StructSerializable> void log(LogKey key, T value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the serializable structures to the given path with the given name
      */
     public static <T extends StructSerializable> void log(String path, String key, T[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the serializable structures to the given path handle with the given name
+     */
+    public static <T extends StructSerializable> void log(LogPath path, String key, T[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the serializable structures to the given key handle
+     */
+    public static <T extends StructSerializable> void log(LogKey key, T[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     // Enum
@@ -192,13 +971,61 @@ public class Logger extends DogLog {
      * Logs out the enum to the given paht with the given name
      */
     public static void log(String path, String key, Enum<?> value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the enum to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, Enum<?> value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the enum to the given key handle
+     */
+    public static void log(LogKey key, Enum<?> value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 
     /*
      * Logs out the enums to the given paht with the given name
      */
     public static void log(String path, String key, Enum<?>[] value) {
-        log(path + "/" + key, value);
+        log(LogPath.of(path).key(key), value);
+    }
+
+    /*
+     * Logs out the enums to the given path handle with the given name
+     */
+    public static void log(LogPath path, String key, Enum<?>[] value) {
+        log(path.key(key), value);
+    }
+
+    /*
+     * Logs out the enums to the given key handle
+     */
+    public static void log(LogKey key, Enum<?>[] value) {
+        if (isSkipped(key) || isDelta(key) && isSuppressed(key, key.repeats(value))) {
+            return;
+        }
+        if (flightRecorder != null) {
+            flightRecorder.record(key, value);
+        }
+        if (isCapturing()) {
+            capture.add(key, value);
+        } else {
+            DogLog.log(key.get(), value);
+        }
     }
 }
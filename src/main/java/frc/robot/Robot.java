@@ -5,22 +5,34 @@
 package frc.robot;
 
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.commands.FollowPathCommand;
 
 import dev.doglog.DogLogOptions;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib.io.motor.MotorGroup;
+import frc.lib.io.motor.ctre.StatusSignalRegistry;
+import frc.lib.util.BlockingCallExecutor;
+import frc.lib.util.BlockingCallExecutor.Priority;
+import frc.lib.util.ConfigFingerprints;
+import frc.lib.util.StartupConfiguration;
+import frc.lib.util.Warmup;
 import frc.robot.controlBoard.ControlBoard;
 import frc.robot.subsystems.Superstructure;
+import frc.lib.util.logging.FlightRecorder;
+import frc.lib.util.logging.LogKey;
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.LogRate;
 import frc.lib.util.logging.Logger;
 
 /**
@@ -33,13 +45,63 @@ import frc.lib.util.logging.Logger;
 public class Robot extends TimedRobot {
     private SendableChooser<Command> autoChooser;
     private Command m_autonomousCommand;
-    private static final BlockingQueue<Runnable> blockingCallsQueue = new LinkedBlockingQueue<>();
-    private static final ThreadPoolExecutor blockingCallsExecutor = new ThreadPoolExecutor(1, 1, 5, java.util.concurrent.TimeUnit.MILLISECONDS, blockingCallsQueue);
+    private static final BlockingCallExecutor blockingCalls = new BlockingCallExecutor("Blocking Calls");
+
+    static {
+        // Loaded before any subsystem is constructed, so devices that already have their config can skip it
+        if (RobotBase.isReal()) {
+            ConfigFingerprints.load(Path.of("/home/lvuser/config-fingerprints.properties"));
+        }
+    }
+    
+    private static final LogPath robotLogPath = LogPath.of("Robot");
+    // Time spent in the robot loop logging the superstructure, to compare logging setups against
+    private static final LogKey logTimeKey = LogPath.of("Logger").key("Superstructure Log Time Ms");
+    // Time spent refreshing every registered CTRE status signal at the start of the loop
+    private static final LogKey signalRefreshTimeKey = robotLogPath.key("Signal Refresh Time Ms");
+    // Estimated load of each CAN bus from the registered signals' status frames, in percent, a lower bound
+    private static final LogPath canLoadLogPath = robotLogPath.child("Estimated CAN Load");
+    private static final LogPath startupConfigurationLogPath = robotLogPath.child("Startup Configuration");
+    private static final double startupConfigurationTimeoutSeconds = 5;
+    private static final LogPath warmupLogPath = robotLogPath.child("Warmup");
+    // The slowest of the first loops after enabling, which is where anything left uncompiled shows up
+    private static final LogKey worstEarlyLoopTimeKey = robotLogPath.key("Worst Early Loop Time Ms");
+    private static final int earlyLoops = 50;
+    private int loopsSinceEnabled = earlyLoops;
+    private double worstEarlyLoopMs = 0;
     
     private Superstructure superstructure = new Superstructure();
 
-    public static void submitBlockingCall(Runnable call) {
-        blockingCallsExecutor.submit(call);
+    /**
+     * Submits a call that blocks, like a config write, to be run off the main loop
+     * @param call The call
+     * @return A future that completes once the call has run
+     */
+    public static CompletableFuture<Void> submitBlockingCall(Runnable call) {
+        return blockingCalls.submit(Priority.NORMAL, call);
+    }
+
+    /**
+     * Submits a call that blocks, like a config write, to be run off the main loop
+     * ahead of any call of a later priority
+     * @param priority How urgent the call is
+     * @param call The call
+     * @return A future that completes once the call has run
+     */
+    public static CompletableFuture<Void> submitBlockingCall(Priority priority, Runnable call) {
+        return blockingCalls.submit(priority, call);
+    }
+
+    /**
+     * Submits a blocking call that replaces any call with the same key that hasn't run yet,
+     * so a burst of writes to the same device or config only applies the last one
+     * @param priority How urgent the call is
+     * @param key What the call writes to, usually a device or one of its config groups
+     * @param call The call, which should apply the latest state when it runs
+     * @return A future that completes once the latest call for the key has run
+     */
+    public static CompletableFuture<Void> submitCoalescedCall(Priority priority, Object key, Runnable call) {
+        return blockingCalls.submitCoalesced(priority, key, call);
     }
 
     /**
@@ -48,12 +110,43 @@ public class Robot extends TimedRobot {
      * initialization code.
      */
     public Robot() {
+        // Every subsystem has been constructed by now, so every device's configuration has been gathered
+        StartupConfiguration.start();
         Logger.setEnabled(true);
         Logger.setOptions(new DogLogOptions(
             () -> !DriverStation.isFMSAttached(), true, true, true, true, 1000, () -> !DriverStation.isFMSAttached()));
+        if (RobotBase.isReal()) {
+            try {
+                Logger.setFlightRecorder(new FlightRecorder(Path.of("/home/lvuser/flight-recorder.bin"), 16 * 1024 * 1024));
+            } catch (IOException e) {
+                DriverStation.reportError("Failed to open the flight recorder", e.getStackTrace());
+            }
+        }
+        Logger.setAsyncPublishing(true);
+        Logger.setDeltaEnabled(true);
+        Logger.setKeyframeInterval(50);
+        LogPath superstructureLogPath = robotLogPath.child("Superstructure");
+        Logger.trackSuppressedWrites(superstructureLogPath);
+        Logger.setRate(superstructureLogPath.child("Drive/Modules"), LogRate.ofHertz(5));
+        // Drive is critical, as the pose is needed to make sense of the rest of the log
+        Logger.profile(superstructureLogPath.child("Drive"), true);
+        Logger.profile(superstructureLogPath.child("Vision"), false);
+        Logger.profile(superstructureLogPath.child("Intake"), false);
+        Logger.profile(superstructureLogPath.child("Indexer"), false);
+        Logger.profile(superstructureLogPath.child("Shooter"), false);
+        Logger.setLoggingBudget(2);
+        Logger.setRate(canLoadLogPath, LogRate.ofHertz(1));
+        // Shows which mechanism's components take the most of the loop
+        superstructure.intake.setComponentTiming(true);
+        superstructure.indexer.setComponentTiming(true);
+        superstructure.shooter.setComponentTiming(true);
         ControlBoard.bindControls(superstructure);
         
         FollowPathCommand.warmupCommand().schedule();
+        // Autos are built against configured devices, the robot still starts if one never responds
+        if (!StartupConfiguration.awaitReady(startupConfigurationTimeoutSeconds)) {
+            DriverStation.reportWarning("Devices weren't all configured before building autos", false);
+        }
         autoChooser = AutoBuilder.buildAutoChooser();
         SmartDashboard.putData("Auto Chooser", autoChooser);
         SmartDashboard.putData(CommandScheduler.getInstance());
@@ -71,6 +164,15 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void robotPeriodic() {
+        long loopStart = System.nanoTime();
+        // Refreshes every motor's signals at once, before any subsystem reads them
+        long refreshStart = System.nanoTime();
+        StatusSignalRegistry.refreshAll();
+        Logger.log(signalRefreshTimeKey, (System.nanoTime() - refreshStart) / 1e6);
+        StatusSignalRegistry.logEstimatedLoad(canLoadLogPath);
+        Logger.log(robotLogPath, "Blocking Calls", blockingCalls);
+        StartupConfiguration.log(startupConfigurationLogPath);
+        Warmup.log(warmupLogPath);
         // Runs the Scheduler. This is responsible for polling buttons, adding
         // newly-scheduled
         // commands, running already-scheduled commands, removing finished or
@@ -79,7 +181,17 @@ public class Robot extends TimedRobot {
         // robot's periodic
         // block in order for anything in the Command-based framework to work.
         CommandScheduler.getInstance().run();
-        Logger.log("Robot", "Superstructure", superstructure);
+        // Sends the setpoints grouped motors were given by the commands that just ran
+        MotorGroup.flushAll();
+        long logStart = System.nanoTime();
+        Logger.log(robotLogPath, "Superstructure", superstructure);
+        Logger.log(logTimeKey, (System.nanoTime() - logStart) / 1e6);
+        if (loopsSinceEnabled < earlyLoops) {
+            loopsSinceEnabled++;
+            worstEarlyLoopMs = Math.max(worstEarlyLoopMs, (System.nanoTime() - loopStart) / 1e6);
+            Logger.log(worstEarlyLoopTimeKey, worstEarlyLoopMs);
+        }
+        Logger.periodic();
     }
 
     /** This function is called once each time the robot enters Disabled mode. */
@@ -89,6 +201,13 @@ public class Robot extends TimedRobot {
 
     @Override
     public void disabledPeriodic() {
+        // Compiles what the first loops after enabling will run, while there's time to spare
+        Warmup.periodic();
+    }
+
+    @Override
+    public void disabledExit() {
+        Warmup.stop();
     }
 
     /**
@@ -97,6 +216,7 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void autonomousInit() {
+        resetEarlyLoops();
         m_autonomousCommand = autoChooser.getSelected();
 
         // schedule the autonomous command (example)
@@ -112,6 +232,7 @@ public class Robot extends TimedRobot {
 
     @Override
     public void teleopInit() {
+        resetEarlyLoops();
         // This makes sure that the autonomous stops running when
         // teleop starts running. If you want the autonomous to
         // continue until interrupted by another command, remove
@@ -121,6 +242,14 @@ public class Robot extends TimedRobot {
         }
     }
 
+    /**
+     * Starts watching for the slowest of the first loops after enabling
+     */
+    private void resetEarlyLoops() {
+        loopsSinceEnabled = 0;
+        worstEarlyLoopMs = 0;
+    }
+
     /** This function is called periodically during operator control. */
     @Override
     public void teleopPeriodic() {
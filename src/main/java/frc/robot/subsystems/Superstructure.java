@@ -3,10 +3,14 @@ package frc.robot.subsystems;
 import frc.robot.controlBoard.ControlBoardConstants;
 import frc.robot.subsystems.drive.Drive;
 import frc.robot.subsystems.drive.DriveConstants;
+import frc.robot.subsystems.indexer.BeltConstants;
 import frc.robot.subsystems.indexer.Indexer;
 import frc.robot.subsystems.intake.Intake;
+import frc.robot.subsystems.intake.PivotConstants;
+import frc.robot.subsystems.intake.RollerConstants;
 import frc.robot.subsystems.vision.Vision;
 import frc.robot.subsystems.shooter.Shooter;
+import frc.robot.subsystems.shooter.TopFlywheelConstants;
 
 import java.util.function.Supplier;
 
@@ -15,6 +19,14 @@ import com.pathplanner.lib.auto.NamedCommands;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
+import frc.lib.component.FlywheelMotorComponent;
+import frc.lib.component.MotorComponent;
+import frc.lib.component.ServoMotorComponent;
+import frc.lib.io.motor.NoOpMotorIO;
+import frc.lib.io.motor.setpoints.MotorSetpoint;
+import frc.lib.io.motor.setpoints.SetpointType;
+import frc.lib.util.Warmup;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 
@@ -34,10 +46,59 @@ public class Superstructure implements Loggable {
         NamedCommands.registerCommand("Prep No Turn", shooter.prepVariableShot(() -> drive.getShotDistance(DriveConstants.getHubPose().toPose2d().getTranslation())));
         NamedCommands.registerCommand("Shoot", shoot());
         NamedCommands.registerCommand("Stow", stow());
+        registerWarmup();
+    }
+
+    /**
+     * Registers what the first loops of a match run with {@link Warmup}, so it's compiled before then.
+     * The real commands write to real devices, so commands built the same way are run against
+     * components with nothing behind them instead
+     */
+    private void registerWarmup() {
+        FlywheelMotorComponent<NoOpMotorIO> flywheel = new FlywheelMotorComponent<>(new NoOpMotorIO(), TopFlywheelConstants.epsilonThreshold);
+        ServoMotorComponent<NoOpMotorIO> pivot = new ServoMotorComponent<>(new NoOpMotorIO(), PivotConstants.epsilonThreshold, PivotConstants.stowAngle);
+        MotorComponent<NoOpMotorIO> roller = new MotorComponent<>(new NoOpMotorIO());
+        Warmup.registerCommand("Intake", () -> Commands.parallel(
+            pivot.applyPositionSetpointCommandWithWait(PivotConstants.intakeSetpoint),
+            roller.applySetpointCommand(RollerConstants.inwardsSetpoint),
+            Commands.idle()
+        ));
+        Warmup.registerCommand("Prep Hub Shot", () -> Commands.parallel(
+            flywheel.followSetpointCommand(SetpointType.VELOCITY, () -> TopFlywheelConstants.shotDistanceVelocityMap.get(drive.getShotDistance()).baseUnitMagnitude()),
+            flywheel.waitForVelocityCommand(TopFlywheelConstants.shotVelocity)
+        ));
+        Warmup.registerCommand("Shoot", () -> Commands.parallel(
+            roller.applySetpointCommand(BeltConstants.feedSetpoint),
+            Commands.idle()
+        ));
+        Warmup.registerCommand("Stow", () -> Commands.parallel(
+            pivot.applySetpointCommand(PivotConstants.stowSetpoint),
+            roller.applySetpointCommand(RollerConstants.idleSetpoint),
+            flywheel.applySetpointCommand(TopFlywheelConstants.idleSetpoint)
+        ));
+        // Every type of setpoint
+        MotorSetpoint dispatchSetpoint = new MotorSetpoint();
+        Warmup.register("Setpoint Dispatch", () -> {
+            for (SetpointType type : SetpointType.values()) {
+                roller.applySetpoint(dispatchSetpoint.set(type, 1));
+                roller.getSetpoint();
+            }
+            roller.periodic();
+            pivot.periodic();
+            flywheel.periodic();
+        });
+        Warmup.registerLoggable("Roller", roller);
+        Warmup.registerLoggable("Pivot", pivot);
+        Warmup.registerLoggable("Flywheel", flywheel);
     }
 
     @Override
     public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
         Logger.log(path, "Drive", drive);
         Logger.log(path, "Vision", vision);
         Logger.log(path, "Intake", intake);
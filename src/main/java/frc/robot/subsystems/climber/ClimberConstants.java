@@ -10,6 +10,7 @@ import edu.wpi.first.wpilibj.simulation.ElevatorSim;
 import frc.lib.component.ServoMotorComponent;
 import frc.lib.io.motor.ctre.TalonFXIO;
 import frc.lib.io.motor.ctre.TalonFXIOSim;
+import frc.lib.io.motor.ctre.TalonSignalProfile;
 import frc.lib.io.motor.setpoints.PositionSetpoint;
 import frc.lib.mechanismSim.LinearSim;
 import frc.lib.mechanismSim.SimObject;
@@ -55,7 +56,10 @@ public class ClimberConstants {
     public static final ServoMotorComponent<TalonFXIO> getComponent() {
         TalonFXIO io = getMotorIO();
         io.overrideLoggedUnits(converter.asAngleUnit(Units.Inches), converter.asAngularVelocityUnit(Units.InchesPerSecond), Units.Celsius);
-        return new ServoMotorComponent<TalonFXIO>(io, converter.toAngle(epsilonThreshold), converter.toAngle(stowDistance));
+        io.setSignalProfiles(TalonSignalProfile.leader(), TalonSignalProfile.follower());
+        ServoMotorComponent<TalonFXIO> component = new ServoMotorComponent<TalonFXIO>(io, converter.toAngle(epsilonThreshold), converter.toAngle(stowDistance));
+        component.setLatencyCompensation(true);
+        return component;
     }
 
     /**
@@ -23,6 +23,7 @@ import edu.wpi.first.units.measure.Distance;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
+import frc.lib.util.logging.LogPath;
 import frc.lib.util.logging.Loggable;
 import frc.lib.util.logging.Logger;
 import frc.robot.controlBoard.ControlBoardConstants;
@@ -36,6 +37,8 @@ public class Drive extends CommandSwerveDrivetrain implements Loggable {
         .withDeadband(DriveConstants.maxSpeed * 0.1) // Add a 10% deadband to translation only
         .withDriveRequestType(DriveRequestType.OpenLoopVoltage); // Use open-loop control for drive motors
 
+    private static final String[] moduleNames = {"Front Left", "Front Right", "Back Left", "Back Right"};
+
     private final SwerveRequest.ApplyRobotSpeeds m_pathApplyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds();
 
     public Drive() {
@@ -126,49 +129,59 @@ public class Drive extends CommandSwerveDrivetrain implements Loggable {
 
     @Override
     public void log(String path) {
+        log(LogPath.of(path));
+    }
+
+    @Override
+    public void log(LogPath path) {
         logPose(path);
-        logModules(path + "/Modules");
+        logModules(path.child("Modules"));
         Logger.log("DISTANCE", getShotDistance());
         Logger.log(path, "GYRO ANGLE", getPigeon2().getRotation2d().getDegrees());
     }
 
-    public void logPose(String path) {
+    public void logPose(LogPath path) {
         Logger.log(path, "Pose", getState().Pose);
         Logger.log(path, "Shooter Pose", getState().Pose.transformBy(DriveConstants.shooterTransform));
     }
 
-    public void logModules(String path) {
+    public void logModules(LogPath path) {
+        if (!Logger.shouldLog(path)) {
+            return;
+        }
         SwerveModule<TalonFX, TalonFX, CANcoder>[] modules = getModules();
-        String[] moduleNames = {"Front Left", "Front Right", "Back Left", "Back Right"};
         for (int i = 0; i < modules.length; i++) {
-            String name = moduleNames[i];
+            LogPath modulePath = path.child(moduleNames[i]);
+            LogPath drivePath = modulePath.child("Drive");
+            LogPath steerPath = modulePath.child("Steer");
+            LogPath encoderPath = modulePath.child("Encoder");
+            LogPath stateModulePath = modulePath.child("Module");
             SwerveModule<TalonFX, TalonFX, CANcoder> module = modules[i];
-            Logger.log(path + "/" + name, "Drive/Stator Voltage", module.getDriveMotor().getMotorVoltage().getValue());
-            Logger.log(path + "/" + name, "Drive/Supply Voltage", module.getDriveMotor().getSupplyVoltage().getValue());
-            Logger.log(path + "/" + name, "Drive/Stator Current", module.getDriveMotor().getStatorCurrent().getValue());
-            Logger.log(path + "/" + name, "Drive/Supply Current", module.getDriveMotor().getSupplyCurrent().getValue());
-            Logger.log(path + "/" + name, "Drive/Velocity", module.getDriveMotor().getVelocity().getValue());
-            Logger.log(path + "/" + name, "Drive/Acceleration", module.getDriveMotor().getAcceleration().getValue());
-            Logger.log(path + "/" + name, "Drive/Temperature", module.getDriveMotor().getDeviceTemp().getValue());
-            Logger.log(path + "/" + name, "Drive/Status", module.getDriveMotor().getMotorOutputStatus().getValue());
-
-            Logger.log(path + "/" + name, "Steer/Stator Voltage", module.getSteerMotor().getMotorVoltage().getValue());
-            Logger.log(path + "/" + name, "Steer/Supply Voltage", module.getSteerMotor().getSupplyVoltage().getValue());
-            Logger.log(path + "/" + name, "Steer/Stator Current", module.getSteerMotor().getStatorCurrent().getValue());
-            Logger.log(path + "/" + name, "Steer/Supply Current", module.getSteerMotor().getSupplyCurrent().getValue());
-            Logger.log(path + "/" + name, "Steer/Velocity", module.getSteerMotor().getVelocity().getValue());
-            Logger.log(path + "/" + name, "Steer/Acceleration", module.getSteerMotor().getAcceleration().getValue());
-            Logger.log(path + "/" + name, "Steer/Temperature", module.getSteerMotor().getDeviceTemp().getValue());
-            Logger.log(path + "/" + name, "Steer/Status", module.getSteerMotor().getMotorOutputStatus().getValue());
-            Logger.log(path + "/" + name, "Steer/Position", module.getSteerMotor().getPosition().getValue());
-
-            Logger.log(path + "/" + name, "Encoder/Absolute Position", module.getEncoder().getAbsolutePosition().getValue());
-            Logger.log(path + "/" + name, "Encoder/Position", module.getEncoder().getPosition().getValue());
-            Logger.log(path + "/" + name, "Encoder/Velocity", module.getEncoder().getVelocity().getValue());
-
-            Logger.log(path + "/" + name, "Module/Speed", Units.MetersPerSecond.of(module.getCurrentState().speedMetersPerSecond));
-            Logger.log(path + "/" + name, "Module/Angle", module.getCurrentState().angle);
-
+            Logger.log(drivePath, "Stator Voltage", module.getDriveMotor().getMotorVoltage().getValue());
+            Logger.log(drivePath, "Supply Voltage", module.getDriveMotor().getSupplyVoltage().getValue());
+            Logger.log(drivePath, "Stator Current", module.getDriveMotor().getStatorCurrent().getValue());
+            Logger.log(drivePath, "Supply Current", module.getDriveMotor().getSupplyCurrent().getValue());
+            Logger.log(drivePath, "Velocity", module.getDriveMotor().getVelocity().getValue());
+            Logger.log(drivePath, "Acceleration", module.getDriveMotor().getAcceleration().getValue());
+            Logger.log(drivePath, "Temperature", module.getDriveMotor().getDeviceTemp().getValue());
+            Logger.log(drivePath, "Status", module.getDriveMotor().getMotorOutputStatus().getValue());
+
+            Logger.log(steerPath, "Stator Voltage", module.getSteerMotor().getMotorVoltage().getValue());
+            Logger.log(steerPath, "Supply Voltage", module.getSteerMotor().getSupplyVoltage().getValue());
+            Logger.log(steerPath, "Stator Current", module.getSteerMotor().getStatorCurrent().getValue());
+            Logger.log(steerPath, "Supply Current", module.getSteerMotor().getSupplyCurrent().getValue());
+            Logger.log(steerPath, "Velocity", module.getSteerMotor().getVelocity().getValue());
+            Logger.log(steerPath, "Acceleration", module.getSteerMotor().getAcceleration().getValue());
+            Logger.log(steerPath, "Temperature", module.getSteerMotor().getDeviceTemp().getValue());
+            Logger.log(steerPath, "Status", module.getSteerMotor().getMotorOutputStatus().getValue());
+            Logger.log(steerPath, "Position", module.getSteerMotor().getPosition().getValue());
+
+            Logger.log(encoderPath, "Absolute Position", module.getEncoder().getAbsolutePosition().getValue());
+            Logger.log(encoderPath, "Position", module.getEncoder().getPosition().getValue());
+            Logger.log(encoderPath, "Velocity", module.getEncoder().getVelocity().getValue());
+
+            Logger.log(stateModulePath, "Speed", Units.MetersPerSecond.of(module.getCurrentState().speedMetersPerSecond));
+            Logger.log(stateModulePath, "Angle", module.getCurrentState().angle);
         }
     }
 }
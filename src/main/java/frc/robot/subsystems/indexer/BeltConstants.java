@@ -13,6 +13,7 @@ import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.lib.component.MotorComponent;
 import frc.lib.io.motor.ctre.TalonFXIO;
 import frc.lib.io.motor.ctre.TalonFXIOSim;
+import frc.lib.io.motor.ctre.TalonSignalProfile;
 import frc.lib.io.motor.setpoints.*;
 import frc.lib.mechanismSim.RollerSim;
 import frc.lib.mechanismSim.SimObject;
@@ -51,7 +52,8 @@ public class BeltConstants {
     public static final MotorComponent<TalonFXIO> getComponent() {
         TalonFXIO io = getMotorIO();
         io.overrideLoggedUnits(Rotations, RPM, Celsius);
-        return new MotorComponent<TalonFXIO>(getMotorIO());
+        io.setSignalProfiles(TalonSignalProfile.leader(), TalonSignalProfile.follower());
+        return new MotorComponent<TalonFXIO>(io);
     }
 
     /**
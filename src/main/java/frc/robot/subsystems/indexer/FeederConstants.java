@@ -15,6 +15,7 @@ import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.lib.component.MotorComponent;
 import frc.lib.io.motor.ctre.TalonFXIO;
 import frc.lib.io.motor.ctre.TalonFXIOSim;
+import frc.lib.io.motor.ctre.TalonSignalProfile;
 import frc.lib.io.motor.setpoints.IdleSetpoint;
 import frc.lib.io.motor.setpoints.VoltageSetpoint;
 import frc.lib.mechanismSim.RollerSim;
@@ -47,6 +48,7 @@ public class FeederConstants {
     public static final MotorComponent<TalonFXIO> getComponent() {
         TalonFXIO io = getMotorIO();
         io.overrideLoggedUnits(Rotations, RPM, Celsius);
+        io.setSignalProfiles(TalonSignalProfile.leader(), TalonSignalProfile.follower());
         return new MotorComponent<>(io); 
     }
 
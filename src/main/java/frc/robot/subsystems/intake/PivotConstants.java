@@ -12,6 +12,7 @@ import frc.lib.component.ServoMotorComponent;
 import frc.lib.component.HomingServoMotorComponent.HomingConfig;
 import frc.lib.io.motor.ctre.TalonFXIO;
 import frc.lib.io.motor.ctre.TalonFXIOSim;
+import frc.lib.io.motor.ctre.TalonSignalProfile;
 import frc.lib.io.motor.setpoints.PositionSetpoint;
 import frc.lib.mechanismSim.PivotSim;
 import frc.lib.mechanismSim.SimObject;
@@ -48,7 +49,10 @@ public class PivotConstants {
     public static final ServoMotorComponent<TalonFXIO> getComponent() {
         TalonFXIO io = getMotorIO();
         io.overrideLoggedUnits(Degrees, DegreesPerSecond, Celsius);
-        return new ServoMotorComponent<TalonFXIO>(io, epsilonThreshold, stowAngle);     
+        io.setSignalProfiles(TalonSignalProfile.leader(), TalonSignalProfile.follower());
+        ServoMotorComponent<TalonFXIO> component = new ServoMotorComponent<TalonFXIO>(io, epsilonThreshold, stowAngle);
+        component.setLatencyCompensation(true);
+        return component;
     }
 
     /**
@@ -19,6 +19,7 @@ import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.lib.component.FlywheelMotorComponent;
 import frc.lib.io.motor.ctre.TalonFXIO;
 import frc.lib.io.motor.ctre.TalonFXIOSim;
+import frc.lib.io.motor.ctre.TalonSignalProfile;
 import frc.lib.io.motor.setpoints.IdleSetpoint;
 import frc.lib.io.motor.setpoints.VelocitySetpoint;
 import frc.lib.mechanismSim.RollerSim;
@@ -71,12 +72,18 @@ public class BottomFlywheelConstants {
     
     public static InterpolatingMeasureMap<Distance, DistanceUnit, AngularVelocity, AngularVelocityUnit> ferryDistanceVelocityMap = new InterpolatingMeasureMap<>(getFerryData());
 
+    public static final double samplingHz = 500;
+    public static final int samplingCapacity = 50;
+
     /**
      *  Gets the final component for the system
      */ 
     public static final FlywheelMotorComponent<TalonFXIO> getComponent() {
         TalonFXIO io =  getMotorIO();
         io.overrideLoggedUnits(Rotations, RPM, Celsius);
+        io.setSignalProfiles(TalonSignalProfile.leader(), TalonSignalProfile.follower());
+        // Sampled fast enough to see a shot pull the flywheel down between loops
+        io.startHighRateSampling(samplingHz, samplingCapacity);
         return new FlywheelMotorComponent<TalonFXIO>(io, epsilonThreshold);
     }
 
@@ -8,13 +8,19 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.lib.component.ComponentSubsystem;
 import frc.lib.component.FlywheelMotorComponent;
+import frc.lib.io.motor.MotorGroup;
 import frc.lib.io.motor.ctre.TalonFXIO;
-import frc.lib.io.motor.setpoints.VelocitySetpoint;
+import frc.lib.io.motor.setpoints.SetpointType;
 import frc.lib.util.TunableNumber;
+import frc.lib.util.Warmup;
+import frc.lib.util.logging.LogPath;
+import frc.lib.util.logging.Logger;
 
 public class Shooter extends ComponentSubsystem {
+    private static final Distance warmupShotDistance = Units.Meters.of(4.1);
     private final FlywheelMotorComponent<TalonFXIO> topFlywheel;
     private final FlywheelMotorComponent<TalonFXIO> bottomFlywheel;
+    private final MotorGroup flywheels;
     private final TunableNumber topNum = new TunableNumber("TOP VEL", 0, true);
     private final TunableNumber botNum = new TunableNumber("BOT VEL", 0, true);
 
@@ -22,14 +28,27 @@ public class Shooter extends ComponentSubsystem {
     public Shooter() {
         topFlywheel = registerComponent("Top Flywheel", TopFlywheelConstants.getComponent());
         bottomFlywheel = registerComponent("Bottom Flywheel", BottomFlywheelConstants.getComponent());
+        // The flywheels spin the note between them, so they change speed together
+        flywheels = new MotorGroup(topFlywheel.getMotorIO(), bottomFlywheel.getMotorIO());
         setDefaultCommand(off());
+        // Looked up every loop while shooting, a distance between the map's points makes it interpolate
+        Warmup.registerMap("Top Flywheel Shot Map", TopFlywheelConstants.shotDistanceVelocityMap, warmupShotDistance);
+        Warmup.registerMap("Bottom Flywheel Shot Map", BottomFlywheelConstants.shotDistanceVelocityMap, warmupShotDistance);
+        Warmup.registerMap("Top Flywheel Ferry Map", TopFlywheelConstants.ferryDistanceVelocityMap, warmupShotDistance);
+        Warmup.registerMap("Bottom Flywheel Ferry Map", BottomFlywheelConstants.ferryDistanceVelocityMap, warmupShotDistance);
+    }
+
+    @Override
+    public void log(LogPath path) {
+        super.log(path);
+        Logger.log(path, "Flywheels", flywheels);
     }
 
     public Command test() {
         return withRequirement(
             Commands.parallel(
-                topFlywheel.followSetpointCommand(() -> new VelocitySetpoint(Units.RPM.of(topNum.get()))),
-                bottomFlywheel.followSetpointCommand(() -> new VelocitySetpoint(Units.RPM.of(botNum.get())))
+                topFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> Units.RPM.toBaseUnits(topNum.get())),
+                bottomFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> Units.RPM.toBaseUnits(botNum.get()))
             )
         );
     }
@@ -65,8 +84,8 @@ public class Shooter extends ComponentSubsystem {
     public Command prepFerryShot(Supplier<Distance> shotDistanceSupplier) {
         return withRequirement(
             Commands.parallel(
-                topFlywheel.followSetpointCommand(() -> new VelocitySetpoint(TopFlywheelConstants.ferryDistanceVelocityMap.get(shotDistanceSupplier.get()))),
-                bottomFlywheel.followSetpointCommand(() -> new VelocitySetpoint(BottomFlywheelConstants.ferryDistanceVelocityMap.get(shotDistanceSupplier.get())))
+                topFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> TopFlywheelConstants.ferryDistanceVelocityMap.get(shotDistanceSupplier.get()).baseUnitMagnitude()),
+                bottomFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> BottomFlywheelConstants.ferryDistanceVelocityMap.get(shotDistanceSupplier.get()).baseUnitMagnitude())
             )
         );
     }
@@ -74,8 +93,8 @@ public class Shooter extends ComponentSubsystem {
     public Command prepVariableShot(Supplier<Distance> shotDistanceSupplier) {
         return withRequirement(
             Commands.parallel(
-                topFlywheel.followSetpointCommand(() -> new VelocitySetpoint(TopFlywheelConstants.shotDistanceVelocityMap.get(shotDistanceSupplier.get()))),
-                bottomFlywheel.followSetpointCommand(() -> new VelocitySetpoint(BottomFlywheelConstants.shotDistanceVelocityMap.get(shotDistanceSupplier.get())))
+                topFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> TopFlywheelConstants.shotDistanceVelocityMap.get(shotDistanceSupplier.get()).baseUnitMagnitude()),
+                bottomFlywheel.followSetpointCommand(SetpointType.VELOCITY, () -> BottomFlywheelConstants.shotDistanceVelocityMap.get(shotDistanceSupplier.get()).baseUnitMagnitude())
             )
         );
     }